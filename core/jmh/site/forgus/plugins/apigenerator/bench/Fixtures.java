@@ -0,0 +1,116 @@
+package site.forgus.plugins.apigenerator.bench;
+
+import site.forgus.plugins.apigenerator.constant.TypeEnum;
+import site.forgus.plugins.apigenerator.normal.SchemaField;
+import site.forgus.plugins.apigenerator.util.JsonUtil;
+import site.forgus.plugins.apigenerator.yapi.model.YApiInterface;
+import site.forgus.plugins.apigenerator.yapi.model.YApiQuery;
+
+/**
+ * 基准测试用的字段树、Javadoc与YApi请求体
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * 单层宽对象，字面量字段与对象数组字段交替
+     */
+    static SchemaField wide(int fieldCount) {
+        SchemaField root = new SchemaField("WideResponse", TypeEnum.OBJECT, "WideResponse");
+        for (int i = 0; i < fieldCount; i++) {
+            root.addChild(i % 10 == 9 ? item("items" + i) : literal(i));
+        }
+        return root;
+    }
+
+    /**
+     * 深层嵌套对象，每层若干字面量字段加一个下层对象
+     */
+    static SchemaField deep(int depth, int fieldsPerLevel) {
+        SchemaField root = new SchemaField("DeepResponse", TypeEnum.OBJECT, "DeepResponse");
+        SchemaField current = root;
+        for (int level = 0; level < depth; level++) {
+            for (int i = 0; i < fieldsPerLevel; i++) {
+                current.addChild(literal(i));
+            }
+            SchemaField next = new SchemaField("level" + level, TypeEnum.OBJECT, "Level" + level);
+            next.setDesc("第" + level + "层|嵌套对象");
+            current.addChild(next);
+            current = next;
+        }
+        return root;
+    }
+
+    static SchemaField shape(String shape) {
+        return "wide".equals(shape) ? wide(2000) : deep(10, 20);
+    }
+
+    private static SchemaField literal(int index) {
+        SchemaField field;
+        switch (index % 4) {
+            case 0:
+                field = SchemaField.literal("id" + index, "Long", 0L);
+                break;
+            case 1:
+                field = SchemaField.literal("name" + index, "String", "");
+                break;
+            case 2:
+                field = SchemaField.literal("enabled" + index, "Boolean", false);
+                break;
+            default:
+                field = SchemaField.literal("amount" + index, "BigDecimal", 0.0);
+        }
+        field.setDesc("字段" + index + "的描述，取值见StatusEnum[ACTIVE:1(启用),INACTIVE:0(停用)]");
+        field.setRequire(index % 3 == 0);
+        field.setRange(index % 5 == 0 ? "[0,100]" : null);
+        return field;
+    }
+
+    private static SchemaField item(String name) {
+        SchemaField array = new SchemaField(name, TypeEnum.ARRAY, "List<Item>");
+        array.setDesc("明细列表");
+        for (int i = 0; i < 5; i++) {
+            array.addChild(literal(i));
+        }
+        return array;
+    }
+
+    /**
+     * 含HTML标签、行内{@link}与@param块标签的长Javadoc
+     */
+    static String javadoc(int lines) {
+        StringBuilder text = new StringBuilder("/**\n");
+        for (int i = 0; i < lines; i++) {
+            text.append("     * 第").append(i).append("行说明，<b>状态</b>取值见{@link StatusEnum#ACTIVE 启用状态}<br/>\n");
+        }
+        text.append("     * @description 查询订单明细\n");
+        for (int i = 0; i < 8; i++) {
+            text.append("     * @param param").append(i).append(" 参数").append(i).append("的说明\n");
+        }
+        text.append("     * @return 订单明细\n");
+        text.append("     */");
+        return text.toString();
+    }
+
+    static YApiInterface yApiInterface(int fieldCount) {
+        YApiInterface yApiInterface = new YApiInterface();
+        yApiInterface.setToken("0123456789abcdef0123456789abcdef");
+        yApiInterface.setTitle("查询订单明细");
+        yApiInterface.setPath("/order/detail");
+        yApiInterface.setMethod("POST");
+        yApiInterface.setCatid("1");
+        yApiInterface.setReq_body_other(JsonUtil.buildJson5(wide(fieldCount)));
+        yApiInterface.setRes_body(JsonUtil.buildJson5(wide(fieldCount)));
+        for (int i = 0; i < 20; i++) {
+            YApiQuery query = new YApiQuery();
+            query.setName("query" + i);
+            query.setExample("");
+            query.setDesc("查询参数" + i);
+            query.setRequired("0");
+            yApiInterface.getReq_query().add(query);
+        }
+        return yApiInterface;
+    }
+}
@@ -0,0 +1,34 @@
+package site.forgus.plugins.apigenerator.bench;
+
+import org.openjdk.jmh.annotations.*;
+import site.forgus.plugins.apigenerator.normal.JavadocInfo;
+import site.forgus.plugins.apigenerator.util.JavadocTokenizer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Javadoc文本解析
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavadocBenchmark {
+
+    @Param({"5", "500"})
+    public int lines;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = Fixtures.javadoc(lines);
+    }
+
+    @Benchmark
+    public JavadocInfo parse() {
+        return JavadocTokenizer.parse(text);
+    }
+}
@@ -0,0 +1,54 @@
+package site.forgus.plugins.apigenerator.bench;
+
+import org.openjdk.jmh.annotations.*;
+import site.forgus.plugins.apigenerator.normal.SchemaField;
+import site.forgus.plugins.apigenerator.util.JsonUtil;
+import site.forgus.plugins.apigenerator.util.MarkdownRenderer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 字段树渲染：JSON示例、JSON5以及markdown示例加参数表格
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+    @Param({"wide", "deep"})
+    public String shape;
+
+    private SchemaField root;
+    private final StringBuilder out = new StringBuilder(1 << 20);
+    private final MarkdownRenderer markdownRenderer = new MarkdownRenderer("└");
+
+    @Setup
+    public void setUp() {
+        root = Fixtures.shape(shape);
+    }
+
+    @Benchmark
+    public int prettyJson() throws IOException {
+        out.setLength(0);
+        JsonUtil.writePrettyJson(out, root);
+        return out.length();
+    }
+
+    @Benchmark
+    public int json5() throws IOException {
+        out.setLength(0);
+        JsonUtil.writeJson5(out, root);
+        return out.length();
+    }
+
+    @Benchmark
+    public int markdown() throws IOException {
+        out.setLength(0);
+        markdownRenderer.writeField(out, "### 返回结果示例\n", "### 返回结果说明\n", root);
+        return out.length();
+    }
+}
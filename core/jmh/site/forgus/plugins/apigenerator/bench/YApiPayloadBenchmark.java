@@ -0,0 +1,42 @@
+package site.forgus.plugins.apigenerator.bench;
+
+import org.openjdk.jmh.annotations.*;
+import site.forgus.plugins.apigenerator.yapi.model.YApiInterface;
+import site.forgus.plugins.apigenerator.yapi.sdk.YApiJson;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * YApi保存接口请求体序列化
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class YApiPayloadBenchmark {
+
+    @Param({"100", "2000"})
+    public int fieldCount;
+
+    private YApiInterface yApiInterface;
+    private final StringBuilder out = new StringBuilder(1 << 20);
+
+    @Setup
+    public void setUp() {
+        yApiInterface = Fixtures.yApiInterface(fieldCount);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return YApiJson.toJson(yApiInterface);
+    }
+
+    @Benchmark
+    public int toJsonStreaming() {
+        out.setLength(0);
+        YApiJson.toJson(yApiInterface, out);
+        return out.length();
+    }
+}
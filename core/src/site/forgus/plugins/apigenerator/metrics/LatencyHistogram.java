@@ -0,0 +1,67 @@
+package site.forgus.plugins.apigenerator.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 耗时直方图，按微秒数的二进制位数分桶(1us,2us,4us...)，记录无锁，分位数取所在桶的上界
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        long micros = nanos / 1000;
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+        long max;
+        do {
+            max = maxNanos.get();
+        } while (nanos > max && !maxNanos.compareAndSet(max, nanos));
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getTotalMillis() {
+        return totalNanos.sum() / 1e6;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    /**
+     * 分位耗时
+     *
+     * @param quantile 0到1之间
+     * @return 毫秒
+     */
+    public double getQuantileMillis(double quantile) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank && seen > 0) {
+                return Math.min((1L << i) / 1e3, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+}
@@ -0,0 +1,39 @@
+package site.forgus.plugins.apigenerator.metrics;
+
+/**
+ * 指标名称
+ */
+public final class MetricNames {
+
+    /**
+     * 单个接口从PSI解析到生成文档或YApi请求体的总耗时，包含渲染
+     */
+    public static final String EXTRACT = "extract";
+    /**
+     * 渲染耗时，字段树按需展开，包含展开子字段的PSI解析
+     */
+    public static final String RENDER_JSON5 = "render.json5";
+    public static final String RENDER_OPENAPI = "render.openapi";
+    public static final String RENDER_MARKDOWN = "render.markdown";
+    public static final String JAVADOC_PARSE = "javadoc.parse";
+    public static final String WRITE_FILE = "write.file";
+    public static final String YAPI_UPLOAD = "yapi.upload";
+    public static final String YAPI_PREFIX = "yapi.";
+
+    public static final String INCREMENTAL_SKIPPED = "incremental.skipped";
+    public static final String WRITE_UNCHANGED = "write.unchanged";
+    public static final String OUTBOX_RESUMED = "outbox.resumed";
+    public static final String OUTBOX_RETRY = "outbox.retry";
+    public static final String YAPI_IMPORT_FALLBACK = "yapi.import.fallback";
+    public static final String YAPI_DIFF_MISSING = "yapi.diff.missing";
+    public static final String YAPI_DIFF_ORPHAN = "yapi.diff.orphan";
+    public static final String ERROR_SUFFIX = ".error";
+
+    public static final String CACHE_TYPE_SCHEMA = "typeSchema";
+    public static final String CACHE_TYPE_REGISTRY = "typeRegistry";
+    public static final String CACHE_JAVADOC = "javadoc";
+    public static final String CACHE_YAPI_CATEGORY = "yapiCategory";
+
+    private MetricNames() {
+    }
+}
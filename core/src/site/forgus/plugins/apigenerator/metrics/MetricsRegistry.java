@@ -0,0 +1,66 @@
+package site.forgus.plugins.apigenerator.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一次运行的指标：各阶段耗时直方图、计数与缓存命中，线程安全
+ */
+public class MetricsRegistry {
+
+    private final String name;
+    private final long startMillis = System.currentTimeMillis();
+    private final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder[]> caches = new ConcurrentHashMap<>();
+
+    public MetricsRegistry(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 记录耗时，用法：long start = System.nanoTime(); try {...} finally { metrics.record(name, start); }
+     *
+     * @param timer      阶段名称
+     * @param startNanos 开始时的System.nanoTime()
+     */
+    public void record(String timer, long startNanos) {
+        timers.computeIfAbsent(timer, key -> new LatencyHistogram()).record(System.nanoTime() - startNanos);
+    }
+
+    public void increment(String counter) {
+        counters.computeIfAbsent(counter, key -> new LongAdder()).increment();
+    }
+
+    public void hit(String cache) {
+        cacheCounters(cache)[0].increment();
+    }
+
+    public void miss(String cache) {
+        cacheCounters(cache)[1].increment();
+    }
+
+    private LongAdder[] cacheCounters(String cache) {
+        return caches.computeIfAbsent(cache, key -> new LongAdder[]{new LongAdder(), new LongAdder()});
+    }
+
+    public MetricsSnapshot snapshot() {
+        MetricsSnapshot snapshot = new MetricsSnapshot(name, startMillis, System.currentTimeMillis() - startMillis);
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(timers).entrySet()) {
+            snapshot.getTimers().add(new MetricsSnapshot.TimerStat(entry.getKey(), entry.getValue()));
+        }
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+            snapshot.getCounters().put(entry.getKey(), entry.getValue().sum());
+        }
+        for (Map.Entry<String, LongAdder[]> entry : new TreeMap<>(caches).entrySet()) {
+            snapshot.getCaches().add(new MetricsSnapshot.CacheStat(entry.getKey(), entry.getValue()[0].sum(), entry.getValue()[1].sum()));
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,94 @@
+package site.forgus.plugins.apigenerator.metrics;
+
+import com.google.gson.GsonBuilder;
+import lombok.Getter;
+
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+/**
+ * 运行指标快照，可格式化为文本摘要或导出为JSON
+ */
+@Getter
+public class MetricsSnapshot {
+
+    private final String name;
+    private final long startMillis;
+    private final long durationMillis;
+    private final List<TimerStat> timers = new ArrayList<>();
+    private final Map<String, Long> counters = new LinkedHashMap<>();
+    private final List<CacheStat> caches = new ArrayList<>();
+
+    public MetricsSnapshot(String name, long startMillis, long durationMillis) {
+        this.name = name;
+        this.startMillis = startMillis;
+        this.durationMillis = durationMillis;
+    }
+
+    public String toJson() {
+        return new GsonBuilder().setPrettyPrinting().create().toJson(this);
+    }
+
+    /**
+     * 文本摘要，每个阶段一行
+     */
+    public String format() {
+        StringBuilder text = new StringBuilder();
+        text.append(name).append(" @ ").append(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date(startMillis)))
+                .append(", ").append(durationMillis).append(" ms\n\n");
+        text.append(String.format("%-28s %8s %10s %9s %9s %9s %9s%n", "phase", "count", "total ms", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (TimerStat timer : timers) {
+            text.append(String.format("%-28s %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    timer.name, timer.count, timer.totalMillis, timer.p50Millis, timer.p90Millis, timer.p99Millis, timer.maxMillis));
+        }
+        if (!counters.isEmpty()) {
+            text.append('\n');
+            for (Map.Entry<String, Long> counter : counters.entrySet()) {
+                text.append(String.format("%-28s %8d%n", counter.getKey(), counter.getValue()));
+            }
+        }
+        if (!caches.isEmpty()) {
+            text.append('\n').append(String.format("%-28s %8s %8s %9s%n", "cache", "hits", "misses", "hit rate"));
+            for (CacheStat cache : caches) {
+                text.append(String.format("%-28s %8d %8d %8.1f%%%n", cache.name, cache.hits, cache.misses, cache.hitRate * 100));
+            }
+        }
+        return text.toString();
+    }
+
+    @Getter
+    public static class TimerStat {
+        private final String name;
+        private final long count;
+        private final double totalMillis;
+        private final double p50Millis;
+        private final double p90Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        TimerStat(String name, LatencyHistogram histogram) {
+            this.name = name;
+            this.count = histogram.getCount();
+            this.totalMillis = histogram.getTotalMillis();
+            this.p50Millis = histogram.getQuantileMillis(0.5);
+            this.p90Millis = histogram.getQuantileMillis(0.9);
+            this.p99Millis = histogram.getQuantileMillis(0.99);
+            this.maxMillis = histogram.getMaxMillis();
+        }
+    }
+
+    @Getter
+    public static class CacheStat {
+        private final String name;
+        private final long hits;
+        private final long misses;
+        private final double hitRate;
+
+        CacheStat(String name, long hits, long misses) {
+            this.name = name;
+            this.hits = hits;
+            this.misses = misses;
+            this.hitRate = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        }
+    }
+}
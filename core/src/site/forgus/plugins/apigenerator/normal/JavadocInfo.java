@@ -0,0 +1,41 @@
+package site.forgus.plugins.apigenerator.normal;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Javadoc解析结果：摘要、@description、@param描述及{@link}引用
+ */
+@Getter
+public class JavadocInfo {
+
+    public static final JavadocInfo EMPTY = new JavadocInfo("", "", Collections.emptyMap(), Collections.emptyList());
+
+    /**
+     * 首个块标签之前的正文
+     */
+    private final String summary;
+    private final String description;
+    private final Map<String, String> params;
+    /**
+     * {@link}引用的目标，如StatusEnum、com.example.Status#OK
+     */
+    private final List<String> links;
+
+    public JavadocInfo(String summary, String description, Map<String, String> params, List<String> links) {
+        this.summary = summary;
+        this.description = description;
+        this.params = params;
+        this.links = links;
+    }
+
+    /**
+     * 描述，优先取@description
+     */
+    public String getDesc() {
+        return description.isEmpty() ? summary : description;
+    }
+}
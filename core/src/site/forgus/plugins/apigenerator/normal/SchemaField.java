@@ -0,0 +1,41 @@
+package site.forgus.plugins.apigenerator.normal;
+
+import lombok.Data;
+import site.forgus.plugins.apigenerator.constant.TypeEnum;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 不依赖IDE的字段树节点，用于脱离IDE构造字段树，如基准测试
+ */
+@Data
+public class SchemaField implements SchemaNode {
+
+    private String name;
+    private TypeEnum paramType;
+    private String typeText;
+    private boolean require;
+    private String range;
+    private String desc;
+    private List<SchemaField> children = new ArrayList<>();
+    private Object example;
+    private Object elementExample;
+
+    public SchemaField(String name, TypeEnum paramType, String typeText) {
+        this.name = name;
+        this.paramType = paramType;
+        this.typeText = typeText;
+    }
+
+    public static SchemaField literal(String name, String typeText, Object example) {
+        SchemaField field = new SchemaField(name, TypeEnum.LITERAL, typeText);
+        field.setExample(example);
+        return field;
+    }
+
+    public SchemaField addChild(SchemaField child) {
+        children.add(child);
+        return this;
+    }
+}
@@ -0,0 +1,71 @@
+package site.forgus.plugins.apigenerator.normal;
+
+import site.forgus.plugins.apigenerator.constant.TypeEnum;
+
+import java.util.List;
+
+/**
+ * 字段树节点，JSON、JSON5与markdown渲染只依赖该接口，不依赖IDE
+ */
+public interface SchemaNode {
+
+    String TRUNCATED_MARK = "(已截断)";
+
+    String getName();
+
+    TypeEnum getParamType();
+
+    /**
+     * 展示用的类型名，如List&lt;User&gt;
+     */
+    String getTypeText();
+
+    boolean isRequire();
+
+    String getRange();
+
+    String getDesc();
+
+    List<? extends SchemaNode> getChildren();
+
+    /**
+     * 字面量字段的示例值
+     */
+    Object getExample();
+
+    /**
+     * 数组字段元素为字面量时的示例值，否则为null
+     */
+    Object getElementExample();
+
+    /**
+     * 对象字段或对象数组元素的类型标识(含泛型参数)，相同标识的字段结构相同，可共享定义；无法共享时为null
+     */
+    default String getSchemaId() {
+        return null;
+    }
+
+    /**
+     * 子字段超出最大深度或字段预算被截断，子字段解析后才准确
+     */
+    default boolean isTruncated() {
+        return false;
+    }
+
+    default boolean hasChildren() {
+        List<? extends SchemaNode> children = getChildren();
+        return children != null && !children.isEmpty();
+    }
+
+    /**
+     * 渲染用的描述，子字段被截断时追加截断标记，会触发子字段解析
+     */
+    static String displayDesc(SchemaNode node) {
+        node.getChildren();
+        String desc = node.getDesc();
+        if (!node.isTruncated()) {
+            return desc;
+        }
+        return desc == null ? TRUNCATED_MARK : desc + TRUNCATED_MARK;
+    }
+}
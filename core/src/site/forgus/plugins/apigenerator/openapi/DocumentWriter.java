@@ -0,0 +1,30 @@
+package site.forgus.plugins.apigenerator.openapi;
+
+import java.io.IOException;
+
+/**
+ * 流式输出JSON或YAML文档，边写边输出，不在内存中构建文档树
+ */
+public interface DocumentWriter {
+
+    void beginObject() throws IOException;
+
+    void endObject() throws IOException;
+
+    void beginArray() throws IOException;
+
+    void endArray() throws IOException;
+
+    void name(String name) throws IOException;
+
+    void value(String value) throws IOException;
+
+    void value(Number value) throws IOException;
+
+    void value(boolean value) throws IOException;
+
+    /**
+     * 写入同一格式、按当前位置缩进生成的片段，见{@link OpenApiFormat#newWriter(Appendable, int)}
+     */
+    void rawValue(String fragment) throws IOException;
+}
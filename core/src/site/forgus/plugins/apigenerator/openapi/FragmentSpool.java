@@ -0,0 +1,56 @@
+package site.forgus.plugins.apigenerator.openapi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 渲染好的文档片段暂存在临时文件中，内存只保留位置
+ */
+class FragmentSpool implements Closeable {
+
+    private final Path file;
+    private final RandomAccessFile raf;
+
+    FragmentSpool() throws IOException {
+        file = Files.createTempFile("api-generator-openapi", ".spool");
+        raf = new RandomAccessFile(file.toFile(), "rw");
+    }
+
+    synchronized Fragment append(String fragment) throws IOException {
+        byte[] bytes = fragment.getBytes(StandardCharsets.UTF_8);
+        long offset = raf.length();
+        raf.seek(offset);
+        raf.write(bytes);
+        return new Fragment(offset, bytes.length);
+    }
+
+    synchronized String read(Fragment fragment) throws IOException {
+        byte[] bytes = new byte[fragment.length];
+        raf.seek(fragment.offset);
+        raf.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            raf.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    static class Fragment {
+        private final long offset;
+        private final int length;
+
+        private Fragment(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
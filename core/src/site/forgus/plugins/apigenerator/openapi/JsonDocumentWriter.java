@@ -0,0 +1,153 @@
+package site.forgus.plugins.apigenerator.openapi;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 带缩进的JSON输出
+ */
+public class JsonDocumentWriter implements DocumentWriter {
+
+    private final Appendable out;
+    private final int baseDepth;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+
+    /**
+     * @param out       输出目标
+     * @param baseDepth 片段所在的嵌套层数，完整文档为0
+     */
+    public JsonDocumentWriter(Appendable out, int baseDepth) {
+        this.out = out;
+        this.baseDepth = baseDepth;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        beforeValue();
+        out.append('{');
+        frames.push(new Frame());
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        end('}');
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        beforeValue();
+        out.append('[');
+        Frame frame = new Frame();
+        frame.array = true;
+        frames.push(frame);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        end(']');
+    }
+
+    @Override
+    public void name(String name) throws IOException {
+        Frame frame = frames.peek();
+        if (frame == null || frame.array) {
+            throw new IllegalStateException("name outside of object: " + name);
+        }
+        newEntry(frame);
+        out.append(quote(name)).append(": ");
+    }
+
+    @Override
+    public void value(String value) throws IOException {
+        beforeValue();
+        out.append(value == null ? "null" : quote(value));
+    }
+
+    @Override
+    public void value(Number value) throws IOException {
+        beforeValue();
+        out.append(String.valueOf(value));
+    }
+
+    @Override
+    public void value(boolean value) throws IOException {
+        beforeValue();
+        out.append(String.valueOf(value));
+    }
+
+    @Override
+    public void rawValue(String fragment) throws IOException {
+        beforeValue();
+        out.append(fragment);
+    }
+
+    private void beforeValue() throws IOException {
+        Frame frame = frames.peek();
+        if (frame != null && frame.array) {
+            newEntry(frame);
+        }
+    }
+
+    private void newEntry(Frame frame) throws IOException {
+        if (!frame.empty) {
+            out.append(',');
+        }
+        frame.empty = false;
+        newLine(baseDepth + frames.size());
+    }
+
+    private void end(char close) throws IOException {
+        Frame frame = frames.pop();
+        if (!frame.empty) {
+            newLine(baseDepth + frames.size());
+        }
+        out.append(close);
+    }
+
+    private void newLine(int depth) throws IOException {
+        out.append('\n');
+        for (int i = 0; i < depth; i++) {
+            out.append("  ");
+        }
+    }
+
+    /**
+     * JSON字符串字面量，同时是合法的YAML双引号标量
+     */
+    static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static class Frame {
+        private boolean array;
+        private boolean empty = true;
+    }
+}
@@ -0,0 +1,430 @@
+package site.forgus.plugins.apigenerator.openapi;
+
+import site.forgus.plugins.apigenerator.normal.SchemaNode;
+import site.forgus.plugins.apigenerator.openapi.model.OpenApiOperation;
+import site.forgus.plugins.apigenerator.openapi.model.OpenApiParameter;
+import site.forgus.plugins.apigenerator.util.AssertUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 流式导出OpenAPI 3文档。每个接口提取后立即渲染为片段并暂存到磁盘，
+ * 多个接口共用的对象类型只渲染一次，放入components/schemas，最后按路径排序拼接输出；
+ * 内存中只保留片段位置，占用取决于单个接口的字段树大小
+ */
+public class OpenApiExporter implements Closeable {
+
+    public static final String OPENAPI_VERSION = "3.0.3";
+
+    /**
+     * 接口(paths/路径/方法)与共享类型(components/schemas/名称)片段所在的嵌套层数
+     */
+    private static final int FRAGMENT_DEPTH = 3;
+    private static final String REF_PREFIX = "#/components/schemas/";
+
+    private final OpenApiFormat format;
+    private final String title;
+    private final String version;
+    private final FragmentSpool spool;
+
+    private final Map<String, String> schemaNames = new ConcurrentHashMap<>();
+    private final Set<String> usedSchemaNames = new HashSet<>();
+    private final Map<String, FragmentSpool.Fragment> schemas = new ConcurrentHashMap<>();
+    private final Map<String, String> operationIds = new HashMap<>();
+    private final Set<String> usedOperationIds = new HashSet<>();
+    private final Map<String, Map<String, FragmentSpool.Fragment>> paths = new TreeMap<>();
+
+    public OpenApiExporter(OpenApiFormat format, String title, String version) throws IOException {
+        this.format = format;
+        this.title = title;
+        this.version = version;
+        this.spool = new FragmentSpool();
+    }
+
+    public OpenApiFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * 渲染接口及其首次出现的共享类型，不修改已导出的内容，可在读操作中调用并重试
+     *
+     * @param operation 接口
+     * @return 渲染结果，需调用{@link #commit(RenderedOperation)}加入文档
+     */
+    public RenderedOperation render(OpenApiOperation operation) throws IOException {
+        Context context = new Context();
+        StringBuilder fragment = new StringBuilder();
+        DocumentWriter writer = format.newWriter(fragment, FRAGMENT_DEPTH);
+        writer.beginObject();
+        if (AssertUtils.isNotEmpty(operation.getTag())) {
+            writer.name("tags");
+            writer.beginArray();
+            writer.value(operation.getTag());
+            writer.endArray();
+        }
+        writeIfNotEmpty(writer, "summary", operation.getSummary());
+        writeIfNotEmpty(writer, "description", operation.getDescription());
+        writer.name("operationId");
+        writer.value(reserveOperationId(operation));
+        if (!operation.getParameters().isEmpty()) {
+            writer.name("parameters");
+            writer.beginArray();
+            for (OpenApiParameter parameter : operation.getParameters()) {
+                writeParameter(writer, parameter, context);
+            }
+            writer.endArray();
+        }
+        if (operation.getRequestBody() != null) {
+            writer.name("requestBody");
+            writer.beginObject();
+            writer.name("required");
+            writer.value(true);
+            writeContent(writer, "application/json", () -> writeSchema(writer, operation.getRequestBody(), context));
+            writer.endObject();
+        } else if (!operation.getFormFields().isEmpty()) {
+            writer.name("requestBody");
+            writer.beginObject();
+            writeContent(writer, "application/x-www-form-urlencoded", () -> writeObject(writer, "", operation.getFormFields(), context));
+            writer.endObject();
+        }
+        writer.name("responses");
+        writer.beginObject();
+        writer.name("200");
+        writer.beginObject();
+        writer.name("description");
+        writer.value("OK");
+        if (operation.getResponse() != null) {
+            writeContent(writer, "application/json", () -> writeSchema(writer, operation.getResponse(), context));
+        }
+        writer.endObject();
+        writer.endObject();
+        writer.endObject();
+        return new RenderedOperation(operation.getPath(), operation.getMethod(), fragment.toString(), context.newSchemas);
+    }
+
+    /**
+     * 暂存渲染结果，同一路径与方法以后提交的为准
+     */
+    public void commit(RenderedOperation rendered) throws IOException {
+        for (Map.Entry<String, String> schema : rendered.schemas.entrySet()) {
+            if (!schemas.containsKey(schema.getKey())) {
+                schemas.putIfAbsent(schema.getKey(), spool.append(schema.getValue()));
+            }
+        }
+        FragmentSpool.Fragment fragment = spool.append(rendered.fragment);
+        synchronized (paths) {
+            paths.computeIfAbsent(rendered.path, path -> new LinkedHashMap<>()).put(rendered.method, fragment);
+        }
+    }
+
+    public void add(OpenApiOperation operation) throws IOException {
+        commit(render(operation));
+    }
+
+    /**
+     * 按路径顺序输出完整文档，片段逐个从磁盘读回
+     */
+    public void writeTo(Appendable out) throws IOException {
+        DocumentWriter writer = format.newWriter(out, 0);
+        writer.beginObject();
+        writer.name("openapi");
+        writer.value(OPENAPI_VERSION);
+        writer.name("info");
+        writer.beginObject();
+        writer.name("title");
+        writer.value(title);
+        writer.name("version");
+        writer.value(version);
+        writer.endObject();
+        writer.name("paths");
+        writer.beginObject();
+        synchronized (paths) {
+            for (Map.Entry<String, Map<String, FragmentSpool.Fragment>> path : paths.entrySet()) {
+                writer.name(path.getKey());
+                writer.beginObject();
+                for (Map.Entry<String, FragmentSpool.Fragment> method : path.getValue().entrySet()) {
+                    writer.name(method.getKey());
+                    writer.rawValue(spool.read(method.getValue()));
+                }
+                writer.endObject();
+            }
+        }
+        writer.endObject();
+        writer.name("components");
+        writer.beginObject();
+        writer.name("schemas");
+        writer.beginObject();
+        for (String name : new TreeSet<>(schemaNames.values())) {
+            writer.name(name);
+            FragmentSpool.Fragment fragment = schemas.get(name);
+            if (fragment != null) {
+                writer.rawValue(spool.read(fragment));
+            } else {
+                //渲染被中断且未重试的类型
+                writer.beginObject();
+                writer.name("type");
+                writer.value("object");
+                writer.endObject();
+            }
+        }
+        writer.endObject();
+        writer.endObject();
+        writer.endObject();
+        out.append('\n');
+    }
+
+    public int getOperationCount() {
+        synchronized (paths) {
+            int count = 0;
+            for (Map<String, FragmentSpool.Fragment> methods : paths.values()) {
+                count += methods.size();
+            }
+            return count;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        spool.close();
+    }
+
+    private void writeParameter(DocumentWriter writer, OpenApiParameter parameter, Context context) throws IOException {
+        writer.beginObject();
+        writer.name("name");
+        writer.value(parameter.getName());
+        writer.name("in");
+        writer.value(parameter.getIn());
+        if (parameter.isRequired()) {
+            writer.name("required");
+            writer.value(true);
+        }
+        writer.name("schema");
+        writeSchema(writer, parameter.getSchema(), context);
+        writer.endObject();
+    }
+
+    private void writeContent(DocumentWriter writer, String mediaType, SchemaWriter schemaWriter) throws IOException {
+        writer.name("content");
+        writer.beginObject();
+        writer.name(mediaType);
+        writer.beginObject();
+        writer.name("schema");
+        schemaWriter.write();
+        writer.endObject();
+        writer.endObject();
+    }
+
+    private void writeSchema(DocumentWriter writer, SchemaNode node, Context context) throws IOException {
+        switch (node.getParamType()) {
+            case ARRAY:
+                writer.beginObject();
+                writer.name("type");
+                writer.value("array");
+                writeIfNotEmpty(writer, "description", describe(node));
+                writer.name("items");
+                if (node.hasChildren() || node.getElementExample() == null) {
+                    writeObjectSchema(writer, node, "", context);
+                } else {
+                    writeLiteral(writer, node.getElementExample(), "");
+                }
+                writer.endObject();
+                return;
+            case OBJECT:
+                writeObjectSchema(writer, node, describe(node), context);
+                return;
+            default:
+                writeLiteral(writer, node.getExample(), describe(node));
+        }
+    }
+
+    /**
+     * 有类型标识的对象引用共享定义，首次出现时渲染定义；递归引用的类型在渲染中即可引用
+     */
+    private void writeObjectSchema(DocumentWriter writer, SchemaNode node, String description, Context context) throws IOException {
+        String schemaId = node.getSchemaId();
+        String name = schemaId == null ? null : node.hasChildren() ? reserveSchemaName(schemaId) : schemaNames.get(schemaId);
+        if (name == null) {
+            writeObject(writer, description, node.getChildren(), context);
+            return;
+        }
+        if (node.hasChildren() && !context.isKnown(name)) {
+            context.rendering.add(name);
+            StringBuilder fragment = new StringBuilder();
+            writeObject(format.newWriter(fragment, FRAGMENT_DEPTH), "", node.getChildren(), context);
+            context.rendering.remove(name);
+            context.newSchemas.put(name, fragment.toString());
+        }
+        writer.beginObject();
+        if (AssertUtils.isEmpty(description)) {
+            writer.name("$ref");
+            writer.value(REF_PREFIX + name);
+        } else {
+            //$ref的同级属性会被忽略，描述需放在allOf外层
+            writer.name("description");
+            writer.value(description);
+            writer.name("allOf");
+            writer.beginArray();
+            writer.beginObject();
+            writer.name("$ref");
+            writer.value(REF_PREFIX + name);
+            writer.endObject();
+            writer.endArray();
+        }
+        writer.endObject();
+    }
+
+    private void writeObject(DocumentWriter writer, String description, List<? extends SchemaNode> properties, Context context) throws IOException {
+        writer.beginObject();
+        writer.name("type");
+        writer.value("object");
+        writeIfNotEmpty(writer, "description", description);
+        if (AssertUtils.isNotEmpty(properties)) {
+            List<String> required = new ArrayList<>();
+            writer.name("properties");
+            writer.beginObject();
+            for (SchemaNode property : properties) {
+                writer.name(property.getName());
+                writeSchema(writer, property, context);
+                if (property.isRequire()) {
+                    required.add(property.getName());
+                }
+            }
+            writer.endObject();
+            if (!required.isEmpty()) {
+                writer.name("required");
+                writer.beginArray();
+                for (String name : required) {
+                    writer.value(name);
+                }
+                writer.endArray();
+            }
+        }
+        writer.endObject();
+    }
+
+    private void writeLiteral(DocumentWriter writer, Object example, String description) throws IOException {
+        writer.beginObject();
+        writer.name("type");
+        if (example instanceof Integer || example instanceof Short || example instanceof Byte) {
+            writer.value("integer");
+            writer.name("format");
+            writer.value("int32");
+        } else if (example instanceof Long || example instanceof BigInteger) {
+            writer.value("integer");
+            writer.name("format");
+            writer.value("int64");
+        } else if (example instanceof Float) {
+            writer.value("number");
+            writer.name("format");
+            writer.value("float");
+        } else if (example instanceof Double) {
+            writer.value("number");
+            writer.name("format");
+            writer.value("double");
+        } else if (example instanceof BigDecimal || example instanceof Number) {
+            writer.value("number");
+        } else if (example instanceof Boolean) {
+            writer.value("boolean");
+        } else {
+            writer.value("string");
+        }
+        writeIfNotEmpty(writer, "description", description);
+        if (example instanceof Number) {
+            writer.name("example");
+            writer.value((Number) example);
+        } else if (example instanceof Boolean) {
+            writer.name("example");
+            writer.value((Boolean) example);
+        } else if (example != null) {
+            writer.name("example");
+            writer.value(example.toString());
+        }
+        writer.endObject();
+    }
+
+    private static void writeIfNotEmpty(DocumentWriter writer, String name, String value) throws IOException {
+        if (AssertUtils.isNotEmpty(value)) {
+            writer.name(name);
+            writer.value(value);
+        }
+    }
+
+    private static String describe(SchemaNode node) {
+        String desc = SchemaNode.displayDesc(node);
+        desc = desc == null ? "" : desc;
+        String range = node.getRange();
+        if (AssertUtils.isEmpty(range) || "N/A".equals(range)) {
+            return desc;
+        }
+        return desc.isEmpty() ? "值域：" + range : desc + "，值域：" + range;
+    }
+
+    /**
+     * 由类型标识生成定义名称，去掉包名，泛型参数以_连接，重名时追加序号
+     */
+    private String reserveSchemaName(String schemaId) {
+        String name = schemaNames.get(schemaId);
+        if (name != null) {
+            return name;
+        }
+        synchronized (usedSchemaNames) {
+            return schemaNames.computeIfAbsent(schemaId, id -> unique(usedSchemaNames,
+                    id.replaceAll("[\\w$]+\\.", "").replaceAll("[^A-Za-z0-9_.\\-]+", "_").replaceAll("^_+|_+$", "")));
+        }
+    }
+
+    private String reserveOperationId(OpenApiOperation operation) {
+        String key = operation.getMethod() + " " + operation.getPath();
+        synchronized (usedOperationIds) {
+            return operationIds.computeIfAbsent(key, k -> unique(usedOperationIds,
+                    AssertUtils.isEmpty(operation.getOperationId()) ? operation.getMethod() + operation.getPath().replaceAll("[^A-Za-z0-9]+", "_") : operation.getOperationId()));
+        }
+    }
+
+    private static String unique(Set<String> used, String name) {
+        String base = name.isEmpty() ? "Object" : name;
+        String unique = base;
+        for (int i = 2; !used.add(unique); i++) {
+            unique = base + i;
+        }
+        return unique;
+    }
+
+    private interface SchemaWriter {
+        void write() throws IOException;
+    }
+
+    /**
+     * 单个接口的渲染上下文
+     */
+    private class Context {
+        private final Map<String, String> newSchemas = new LinkedHashMap<>();
+        private final Set<String> rendering = new HashSet<>();
+
+        private boolean isKnown(String name) {
+            return rendering.contains(name) || newSchemas.containsKey(name) || schemas.containsKey(name);
+        }
+    }
+
+    /**
+     * 接口片段及其首次出现的共享类型定义
+     */
+    public static class RenderedOperation {
+        private final String path;
+        private final String method;
+        private final String fragment;
+        private final Map<String, String> schemas;
+
+        private RenderedOperation(String path, String method, String fragment, Map<String, String> schemas) {
+            this.path = path;
+            this.method = method;
+            this.fragment = fragment;
+            this.schemas = schemas;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package site.forgus.plugins.apigenerator.openapi;
+
+/**
+ * OpenAPI文档格式
+ */
+public enum OpenApiFormat {
+    JSON("json"),
+    YAML("yaml");
+    private String extension;
+
+    public String getExtension() {
+        return extension;
+    }
+
+    OpenApiFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * @param out       输出目标
+     * @param baseDepth 片段所在的嵌套层数，完整文档为0
+     */
+    public DocumentWriter newWriter(Appendable out, int baseDepth) {
+        return this == JSON ? new JsonDocumentWriter(out, baseDepth) : new YamlDocumentWriter(out, baseDepth);
+    }
+}
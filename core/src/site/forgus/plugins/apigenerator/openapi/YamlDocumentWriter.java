@@ -0,0 +1,156 @@
+package site.forgus.plugins.apigenerator.openapi;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.regex.Pattern;
+
+/**
+ * 块风格的YAML输出，字符串仅在可能被误解析时加引号
+ */
+public class YamlDocumentWriter implements DocumentWriter {
+
+    private static final Pattern PLAIN = Pattern.compile("[A-Za-z_/][A-Za-z0-9_./\\-]*");
+    private static final Pattern RESERVED = Pattern.compile("(?i)true|false|null|yes|no|on|off|y|n|~");
+
+    private final Appendable out;
+    private final int baseDepth;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private boolean atDocumentStart;
+
+    /**
+     * @param out       输出目标
+     * @param baseDepth 片段所在的嵌套层数，完整文档为0；片段作为某个键的值拼接
+     */
+    public YamlDocumentWriter(Appendable out, int baseDepth) {
+        this.out = out;
+        this.baseDepth = baseDepth;
+        this.atDocumentStart = baseDepth == 0;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        beginContainer(false);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        end("{}");
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        beginContainer(true);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        end("[]");
+    }
+
+    @Override
+    public void name(String name) throws IOException {
+        Frame frame = frames.peek();
+        if (frame == null || frame.array) {
+            throw new IllegalStateException("name outside of object: " + name);
+        }
+        newEntry(frame);
+        out.append(scalar(name)).append(':');
+    }
+
+    @Override
+    public void value(String value) throws IOException {
+        writeScalar(value == null ? "null" : scalar(value));
+    }
+
+    @Override
+    public void value(Number value) throws IOException {
+        writeScalar(String.valueOf(value));
+    }
+
+    @Override
+    public void value(boolean value) throws IOException {
+        writeScalar(String.valueOf(value));
+    }
+
+    @Override
+    public void rawValue(String fragment) throws IOException {
+        Frame frame = frames.peek();
+        if (frame != null && frame.array) {
+            throw new IllegalStateException("fragment inside of array");
+        }
+        out.append(fragment);
+    }
+
+    private void writeScalar(String scalar) throws IOException {
+        Frame frame = frames.peek();
+        if (frame == null) {
+            out.append(atDocumentStart ? "" : " ").append(scalar);
+            atDocumentStart = false;
+            return;
+        }
+        if (frame.array) {
+            newEntry(frame);
+            out.append("- ").append(scalar);
+            return;
+        }
+        out.append(' ').append(scalar);
+    }
+
+    private void beginContainer(boolean array) throws IOException {
+        Frame parent = frames.peek();
+        Frame frame = new Frame();
+        frame.array = array;
+        if (parent != null && parent.array) {
+            //数组元素的第一个键或元素与"- "同行
+            newEntry(parent);
+            out.append("- ");
+            frame.inline = true;
+        }
+        frames.push(frame);
+        frame.indent = baseDepth + frames.size() - 1;
+    }
+
+    private void newEntry(Frame frame) throws IOException {
+        boolean inlineStart = frame.inline && frame.empty;
+        frame.empty = false;
+        if (inlineStart) {
+            return;
+        }
+        if (atDocumentStart) {
+            atDocumentStart = false;
+            return;
+        }
+        out.append('\n');
+        for (int i = 0; i < frame.indent; i++) {
+            out.append("  ");
+        }
+    }
+
+    private void end(String empty) throws IOException {
+        Frame frame = frames.pop();
+        if (!frame.empty) {
+            return;
+        }
+        if (frame.inline || atDocumentStart) {
+            out.append(empty);
+            atDocumentStart = false;
+        } else {
+            out.append(' ').append(empty);
+        }
+    }
+
+    private static String scalar(String value) {
+        if (PLAIN.matcher(value).matches() && !RESERVED.matcher(value).matches()) {
+            return value;
+        }
+        return JsonDocumentWriter.quote(value);
+    }
+
+    private static class Frame {
+        private boolean array;
+        private boolean inline;
+        private boolean empty = true;
+        private int indent;
+    }
+}
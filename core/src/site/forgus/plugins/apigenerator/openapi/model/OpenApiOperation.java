@@ -0,0 +1,36 @@
+package site.forgus.plugins.apigenerator.openapi.model;
+
+import lombok.Data;
+import site.forgus.plugins.apigenerator.normal.SchemaNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一个接口的OpenAPI描述，字段树在导出时才展开
+ */
+@Data
+public class OpenApiOperation {
+
+    private String path;
+    /**
+     * 小写的请求方法，如get
+     */
+    private String method;
+    private String operationId;
+    private String summary;
+    private String description;
+    private String tag;
+    private List<OpenApiParameter> parameters = new ArrayList<>();
+
+    /**
+     * JSON请求体，与表单字段互斥
+     */
+    private SchemaNode requestBody;
+    private List<SchemaNode> formFields = new ArrayList<>();
+
+    /**
+     * JSON响应体，非JSON响应或无返回值时为null
+     */
+    private SchemaNode response;
+}
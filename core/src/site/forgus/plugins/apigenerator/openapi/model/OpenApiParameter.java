@@ -0,0 +1,26 @@
+package site.forgus.plugins.apigenerator.openapi.model;
+
+import lombok.Data;
+import site.forgus.plugins.apigenerator.normal.SchemaNode;
+
+/**
+ * 路径、查询或请求头参数
+ */
+@Data
+public class OpenApiParameter {
+
+    /**
+     * path、query或header
+     */
+    private String in;
+    private String name;
+    private boolean required;
+    private SchemaNode schema;
+
+    public OpenApiParameter(String in, String name, boolean required, SchemaNode schema) {
+        this.in = in;
+        this.name = name;
+        this.required = required;
+        this.schema = schema;
+    }
+}
@@ -0,0 +1,172 @@
+package site.forgus.plugins.apigenerator.util;
+
+import site.forgus.plugins.apigenerator.normal.JavadocInfo;
+
+import java.util.*;
+
+/**
+ * 单次扫描Javadoc文本，去除注释符号与HTML标签，拆分正文与块标签
+ */
+public class JavadocTokenizer {
+
+    private static final Set<String> htmlTags = new HashSet<>(Arrays.asList(
+            "br", "p", "li", "ul", "ol", "b", "i", "em", "strong", "code", "pre", "a", "div", "span", "tt"));
+
+    private final String text;
+    private final int end;
+    private int pos;
+
+    private final StringBuilder section = new StringBuilder();
+    private String tagName;
+    private String summary = "";
+    private String description = "";
+    private final Map<String, String> params = new LinkedHashMap<>();
+    private final List<String> links = new ArrayList<>();
+
+    private JavadocTokenizer(String text) {
+        this.text = text;
+        this.pos = text.startsWith("/**") ? 3 : 0;
+        //空注释/**/的开始与结束符号共用星号
+        this.end = text.endsWith("*/") ? Math.max(pos, text.length() - 2) : text.length();
+    }
+
+    /**
+     * 解析Javadoc文本，可以带注释起止符号
+     *
+     * @param text Javadoc文本
+     * @return 解析结果
+     */
+    public static JavadocInfo parse(String text) {
+        return new JavadocTokenizer(text).doParse();
+    }
+
+    private JavadocInfo doParse() {
+        boolean lineStart = true;
+        while (pos < end) {
+            if (lineStart) {
+                skipLinePrefix();
+                lineStart = false;
+                if (pos < end && text.charAt(pos) == '@') {
+                    startBlockTag();
+                }
+                continue;
+            }
+            char c = text.charAt(pos);
+            if (c == '\n' || c == '\r') {
+                appendSpace();
+                lineStart = true;
+                pos++;
+            } else if (c == '{' && pos + 1 < end && text.charAt(pos + 1) == '@') {
+                readInlineTag();
+            } else if (c == '<' && readHtmlTag()) {
+                appendSpace();
+            } else if (Character.isWhitespace(c)) {
+                appendSpace();
+                pos++;
+            } else {
+                section.append(c);
+                pos++;
+            }
+        }
+        finishSection();
+        return new JavadocInfo(summary, description, Collections.unmodifiableMap(params), Collections.unmodifiableList(links));
+    }
+
+    /**
+     * 跳过行首空白、星号及星号后的空白
+     */
+    private void skipLinePrefix() {
+        skipBlank();
+        while (pos < end && text.charAt(pos) == '*') {
+            pos++;
+        }
+        skipBlank();
+    }
+
+    private void skipBlank() {
+        while (pos < end && (text.charAt(pos) == ' ' || text.charAt(pos) == '\t')) {
+            pos++;
+        }
+    }
+
+    private void startBlockTag() {
+        finishSection();
+        int start = ++pos;
+        while (pos < end && Character.isLetter(text.charAt(pos))) {
+            pos++;
+        }
+        tagName = text.substring(start, pos);
+    }
+
+    /**
+     * 行内标签：{@link Target label}只保留label并记录Target，其余标签保留内容
+     */
+    private void readInlineTag() {
+        int close = text.indexOf('}', pos);
+        if (close < 0 || close > end) {
+            close = end;
+        }
+        String content = text.substring(pos + 2, close).trim();
+        pos = Math.min(close + 1, end);
+        int nameEnd = indexOfWhitespace(content, 0);
+        String name = content.substring(0, nameEnd);
+        String rest = content.substring(nameEnd).trim();
+        if ("link".equals(name) || "linkplain".equals(name)) {
+            int targetEnd = indexOfWhitespace(rest, 0);
+            if (targetEnd > 0) {
+                links.add(rest.substring(0, targetEnd));
+            }
+            rest = rest.substring(targetEnd).trim();
+        }
+        section.append(rest);
+    }
+
+    /**
+     * 识别常见HTML标签并跳过，不是标签时返回false
+     */
+    private boolean readHtmlTag() {
+        int close = text.indexOf('>', pos);
+        if (close < 0 || close > end) {
+            return false;
+        }
+        int nameStart = pos + 1 < close && text.charAt(pos + 1) == '/' ? pos + 2 : pos + 1;
+        int nameEnd = nameStart;
+        while (nameEnd < close && Character.isLetter(text.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        if (!htmlTags.contains(text.substring(nameStart, nameEnd).toLowerCase())) {
+            return false;
+        }
+        pos = close + 1;
+        return true;
+    }
+
+    private void appendSpace() {
+        int length = section.length();
+        if (length > 0 && section.charAt(length - 1) != ' ') {
+            section.append(' ');
+        }
+    }
+
+    private void finishSection() {
+        String content = section.toString().trim();
+        section.setLength(0);
+        if (tagName == null) {
+            summary = content;
+        } else if ("description".equalsIgnoreCase(tagName)) {
+            description = content.startsWith(":") ? content.substring(1).trim() : content;
+        } else if ("param".equals(tagName) && !content.isEmpty()) {
+            int nameEnd = indexOfWhitespace(content, 0);
+            params.put(content.substring(0, nameEnd), content.substring(nameEnd).trim());
+        }
+    }
+
+    private static int indexOfWhitespace(String str, int from) {
+        for (int i = from; i < str.length(); i++) {
+            if (Character.isWhitespace(str.charAt(i))) {
+                return i;
+            }
+        }
+        return str.length();
+    }
+}
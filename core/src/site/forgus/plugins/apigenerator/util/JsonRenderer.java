@@ -0,0 +1,223 @@
+package site.forgus.plugins.apigenerator.util;
+
+import site.forgus.plugins.apigenerator.constant.TypeEnum;
+import site.forgus.plugins.apigenerator.normal.SchemaNode;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 单次遍历字段树，直接输出格式化的JSON，可选在字段所在行尾追加描述注释(JSON5)，
+ * 遍历到的每个字段按先序通知监听者，供参数表格等复用同一次遍历
+ */
+class JsonRenderer {
+
+    private static final String INDENT = "  ";
+
+    private final Appendable out;
+    private final boolean withComment;
+    private final FieldListener listener;
+    private String pendingComment;
+    private int level = -1;
+
+    JsonRenderer(Appendable out, boolean withComment) {
+        this(out, withComment, null);
+    }
+
+    JsonRenderer(Appendable out, boolean withComment, FieldListener listener) {
+        this.out = out;
+        this.withComment = withComment;
+        this.listener = listener;
+    }
+
+    /**
+     * 字段遍历监听，level为字段在字段树中的层级，顶层字段为0
+     */
+    interface FieldListener {
+        void onField(SchemaNode fieldInfo, int level) throws IOException;
+    }
+
+    void renderFields(List<? extends SchemaNode> fieldInfos) throws IOException {
+        writeObject(fieldInfos, 0);
+    }
+
+    void render(SchemaNode fieldInfo) throws IOException {
+        if (TypeEnum.LITERAL.equals(fieldInfo.getParamType())) {
+            out.append(String.valueOf(fieldInfo.getExample()));
+            return;
+        }
+        if (TypeEnum.ARRAY.equals(fieldInfo.getParamType())) {
+            out.append('[');
+            endLine();
+            indent(1);
+            writeObject(fieldInfo.getChildren(), 1);
+            endLine();
+            out.append(']');
+            return;
+        }
+        writeObject(fieldInfo.getChildren(), 0);
+    }
+
+    /**
+     * 结束当前行，行尾带上待输出的注释
+     */
+    void endLine() throws IOException {
+        if (pendingComment != null) {
+            out.append("//").append(pendingComment);
+            pendingComment = null;
+        }
+        out.append('\n');
+    }
+
+    private void writeObject(List<? extends SchemaNode> fieldInfos, int depth) throws IOException {
+        out.append('{');
+        boolean empty = true;
+        level++;
+        if (fieldInfos != null) {
+            for (SchemaNode fieldInfo : fieldInfos) {
+                if (listener != null) {
+                    listener.onField(fieldInfo, level);
+                }
+                if (!isPresent(fieldInfo)) {
+                    notifyHidden(fieldInfo.getChildren());
+                    continue;
+                }
+                if (!empty) {
+                    out.append(',');
+                }
+                endLine();
+                indent(depth + 1);
+                writeString(fieldInfo.getName());
+                out.append(": ");
+                if (withComment) {
+                    pendingComment = buildComment(fieldInfo);
+                }
+                writeValue(fieldInfo, depth + 1);
+                empty = false;
+            }
+        }
+        level--;
+        if (!empty) {
+            endLine();
+            indent(depth);
+        }
+        out.append('}');
+    }
+
+    private void writeValue(SchemaNode fieldInfo, int depth) throws IOException {
+        if (TypeEnum.LITERAL.equals(fieldInfo.getParamType())) {
+            writeLiteral(fieldInfo.getExample());
+            return;
+        }
+        if (TypeEnum.ARRAY.equals(fieldInfo.getParamType())) {
+            out.append('[');
+            endLine();
+            indent(depth + 1);
+            if (fieldInfo.hasChildren()) {
+                writeObject(fieldInfo.getChildren(), depth + 1);
+            } else {
+                Object value = fieldInfo.getElementExample();
+                if (value == null) {
+                    out.append("{}");
+                } else {
+                    writeLiteral(value);
+                }
+            }
+            endLine();
+            indent(depth);
+            out.append(']');
+            return;
+        }
+        writeObject(fieldInfo.getChildren(), depth);
+    }
+
+    /**
+     * 不输出到JSON的字段，其子字段仍需通知监听者
+     */
+    private void notifyHidden(List<? extends SchemaNode> fieldInfos) throws IOException {
+        if (listener == null || fieldInfos == null) {
+            return;
+        }
+        level++;
+        for (SchemaNode fieldInfo : fieldInfos) {
+            listener.onField(fieldInfo, level);
+            if (fieldInfo.hasChildren()) {
+                notifyHidden(fieldInfo.getChildren());
+            }
+        }
+        level--;
+    }
+
+    /**
+     * 对象字段的子字段均与自身同名时不输出该字段
+     */
+    private boolean isPresent(SchemaNode fieldInfo) {
+        if (!TypeEnum.OBJECT.equals(fieldInfo.getParamType()) || fieldInfo.getChildren() == null) {
+            return true;
+        }
+        for (SchemaNode child : fieldInfo.getChildren()) {
+            if (!child.getName().equals(fieldInfo.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String buildComment(SchemaNode fieldInfo) {
+        String desc = SchemaNode.displayDesc(fieldInfo);
+        if (fieldInfo.isRequire()) {
+            desc = AssertUtils.isEmpty(desc) ? "必填" : desc + ",必填";
+        }
+        if (AssertUtils.isEmpty(desc)) {
+            return null;
+        }
+        return desc.replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private void writeLiteral(Object value) throws IOException {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value.toString());
+        } else {
+            writeString(value.toString());
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    private void indent(int depth) throws IOException {
+        for (int i = 0; i < depth; i++) {
+            out.append(INDENT);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package site.forgus.plugins.apigenerator.util;
+
+import site.forgus.plugins.apigenerator.normal.SchemaNode;
+
+import java.io.IOException;
+import java.util.List;
+
+public class JsonUtil {
+
+    public static String buildPrettyJson(List<? extends SchemaNode> children) {
+        StringBuilder json = new StringBuilder();
+        try {
+            writePrettyJson(json, children);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return json.toString();
+    }
+
+    public static String buildPrettyJson(SchemaNode fieldInfo) {
+        StringBuilder json = new StringBuilder();
+        try {
+            writePrettyJson(json, fieldInfo);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return json.toString();
+    }
+
+    public static String buildJson5(SchemaNode fieldInfo) {
+        StringBuilder json5 = new StringBuilder();
+        try {
+            writeJson5(json5, fieldInfo);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return json5.toString();
+    }
+
+    public static void writePrettyJson(Appendable out, List<? extends SchemaNode> children) throws IOException {
+        new JsonRenderer(out, false).renderFields(children);
+    }
+
+    public static void writePrettyJson(Appendable out, SchemaNode fieldInfo) throws IOException {
+        new JsonRenderer(out, false).render(fieldInfo);
+    }
+
+    /**
+     * 输出带字段描述注释的json5
+     *
+     * @param out       输出目标
+     * @param fieldInfo 字段
+     * @throws IOException
+     */
+    public static void writeJson5(Appendable out, SchemaNode fieldInfo) throws IOException {
+        if (fieldInfo == null) {
+            return;
+        }
+        JsonRenderer renderer = new JsonRenderer(out, true);
+        renderer.render(fieldInfo);
+        renderer.endLine();
+    }
+}
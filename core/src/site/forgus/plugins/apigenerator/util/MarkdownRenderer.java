@@ -0,0 +1,118 @@
+package site.forgus.plugins.apigenerator.util;
+
+import site.forgus.plugins.apigenerator.normal.SchemaNode;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 输出字段的JSON示例与参数说明表格，两者共用一次字段树遍历；
+ * 表格行按层级从复用的缩进栈取前缀，描述中的|转义，换行替换为空格
+ */
+public class MarkdownRenderer {
+
+    private static final String TABLE_HEADER = "名称|类型|必填|值域范围|描述/示例\n---|---|---|---|---\n";
+
+    private final String indent;
+
+    /**
+     * @param indent 每层子字段名称前的缩进
+     */
+    public MarkdownRenderer(String indent) {
+        this.indent = indent;
+    }
+
+    /**
+     * 输出字段列表的示例与参数说明
+     *
+     * @param md           输出目标
+     * @param exampleTitle 示例标题
+     * @param tableTitle   参数说明标题
+     * @param fieldInfos   字段列表
+     * @throws IOException
+     */
+    public void writeFields(Appendable md, String exampleTitle, String tableTitle, List<? extends SchemaNode> fieldInfos) throws IOException {
+        md.append(exampleTitle);
+        if (!AssertUtils.isNotEmpty(fieldInfos)) {
+            md.append(tableTitle);
+            return;
+        }
+        TableWriter table = new TableWriter();
+        md.append("```json\n");
+        new JsonRenderer(md, false, table).renderFields(fieldInfos);
+        writeTable(md, tableTitle, table);
+    }
+
+    /**
+     * 输出返回值的示例与参数说明，表格只列出返回值的子字段
+     *
+     * @param md           输出目标
+     * @param exampleTitle 示例标题
+     * @param tableTitle   参数说明标题
+     * @param fieldInfo    返回值
+     * @throws IOException
+     */
+    public void writeField(Appendable md, String exampleTitle, String tableTitle, SchemaNode fieldInfo) throws IOException {
+        md.append(exampleTitle);
+        if (fieldInfo == null || !fieldInfo.hasChildren()) {
+            md.append(tableTitle);
+            return;
+        }
+        TableWriter table = new TableWriter();
+        md.append("```json\n");
+        new JsonRenderer(md, false, table).render(fieldInfo);
+        writeTable(md, tableTitle, table);
+    }
+
+    private void writeTable(Appendable md, String tableTitle, TableWriter table) throws IOException {
+        md.append("\n```\n");
+        md.append(tableTitle);
+        md.append(TABLE_HEADER);
+        md.append(table.rows);
+    }
+
+    private class TableWriter implements JsonRenderer.FieldListener {
+
+        private final StringBuilder rows = new StringBuilder();
+        private final StringBuilder indentStack = new StringBuilder();
+
+        @Override
+        public void onField(SchemaNode fieldInfo, int level) {
+            while (indentStack.length() < level * indent.length()) {
+                indentStack.append(indent);
+            }
+            rows.append(indentStack, 0, level * indent.length());
+            boolean hasChildren = fieldInfo.hasChildren();
+            if (hasChildren) {
+                rows.append("**");
+            }
+            appendEscaped(fieldInfo.getName());
+            if (hasChildren) {
+                rows.append("**");
+            }
+            rows.append('|');
+            appendEscaped(fieldInfo.getTypeText());
+            rows.append('|').append(fieldInfo.isRequire() ? 'Y' : 'N').append('|');
+            appendEscaped(AssertUtils.isEmpty(fieldInfo.getRange()) ? "N/A" : fieldInfo.getRange());
+            rows.append('|');
+            appendEscaped(SchemaNode.displayDesc(fieldInfo));
+            rows.append('\n');
+        }
+
+        private void appendEscaped(String text) {
+            if (text == null) {
+                return;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '|') {
+                    rows.append("\\|");
+                } else if (c == '\n' || c == '\r') {
+                    rows.append(' ');
+                } else {
+                    rows.append(c);
+                }
+            }
+        }
+    }
+}
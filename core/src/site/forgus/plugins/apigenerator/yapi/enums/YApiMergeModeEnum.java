@@ -0,0 +1,28 @@
+package site.forgus.plugins.apigenerator.yapi.enums;
+
+/**
+ * YApi数据导入的合并模式
+ */
+public enum YApiMergeModeEnum {
+    /**
+     * 已存在的接口不导入
+     */
+    NORMAL("normal"),
+    /**
+     * 智能合并，保留服务端已有的字段
+     */
+    GOOD("good"),
+    /**
+     * 完全覆盖，与逐个保存接口的效果一致
+     */
+    MERGE("merge");
+    private String value;
+
+    public String getValue() {
+        return value;
+    }
+
+    YApiMergeModeEnum(String value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,28 @@
+package site.forgus.plugins.apigenerator.yapi.model;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 待上传的接口，包含接口内容、所属分类及依赖的源文件
+ */
+@Data
+public class YApiEndpoint {
+
+    private String key;
+    private YApiInterface yApiInterface;
+    private String catName;
+    private Map<String, Long> dependencies;
+
+    public YApiEndpoint(String key, YApiInterface yApiInterface, String catName, Map<String, Long> dependencies) {
+        this.key = key;
+        this.yApiInterface = yApiInterface;
+        this.catName = catName;
+        this.dependencies = dependencies;
+    }
+
+    public String getName() {
+        return yApiInterface.getMethod() + " " + yApiInterface.getPath();
+    }
+}
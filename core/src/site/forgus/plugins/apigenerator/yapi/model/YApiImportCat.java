@@ -0,0 +1,21 @@
+package site.forgus.plugins.apigenerator.yapi.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * YApi数据导入(json格式)中的一个分类，导入时按名称匹配或创建分类
+ */
+@Data
+public class YApiImportCat {
+
+    private String name;
+    private String desc = "";
+    private List<YApiInterface> list = new ArrayList<>();
+
+    public YApiImportCat(String name) {
+        this.name = name;
+    }
+}
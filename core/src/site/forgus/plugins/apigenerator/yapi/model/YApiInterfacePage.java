@@ -0,0 +1,23 @@
+package site.forgus.plugins.apigenerator.yapi.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * YApi接口列表的一页
+ */
+@Data
+public class YApiInterfacePage {
+
+    /**
+     * 接口总数
+     */
+    private Integer count;
+    /**
+     * 总页数
+     */
+    private Integer total;
+    private List<YApiInterfaceSummary> list = new ArrayList<>();
+}
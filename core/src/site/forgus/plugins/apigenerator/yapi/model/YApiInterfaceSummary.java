@@ -0,0 +1,24 @@
+package site.forgus.plugins.apigenerator.yapi.model;
+
+import lombok.Data;
+
+/**
+ * YApi接口列表中的一项，只含接口标识信息，不含请求与响应定义
+ */
+@Data
+public class YApiInterfaceSummary {
+
+    private Integer _id;
+    private Integer catid;
+    private Integer project_id;
+    private String title;
+    private String path;
+    private String method;
+
+    /**
+     * 与{@link YApiEndpoint#getName()}一致，用于按路径与方法匹配本地接口
+     */
+    public String getName() {
+        return method + " " + path;
+    }
+}
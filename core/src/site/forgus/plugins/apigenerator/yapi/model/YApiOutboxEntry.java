@@ -0,0 +1,38 @@
+package site.forgus.plugins.apigenerator.yapi.model;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 待上传接口的持久化记录，包含上传目标、接口内容与重试状态
+ */
+@Data
+public class YApiOutboxEntry {
+
+    /**
+     * 接口标识，同一接口只保留最新一次生成的内容
+     */
+    private String key;
+    private String serverUrl;
+    private String token;
+    private String projectId;
+    private String catName;
+    private YApiInterface yApiInterface;
+
+    /**
+     * 生成时的配置摘要、内容摘要与依赖文件版本戳，用于断点续传时判断是否需要重新解析
+     */
+    private String settingHash;
+    private String payloadHash;
+    private Map<String, Long> dependencies = new HashMap<>();
+
+    private int attempts;
+    private long nextAttemptMillis;
+    private String lastError;
+
+    public String getName() {
+        return yApiInterface.getMethod() + " " + yApiInterface.getPath();
+    }
+}
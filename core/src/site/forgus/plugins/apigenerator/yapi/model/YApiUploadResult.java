@@ -0,0 +1,25 @@
+package site.forgus.plugins.apigenerator.yapi.model;
+
+import lombok.Data;
+
+@Data
+public class YApiUploadResult {
+
+    private String name;
+    private boolean success;
+    private String message;
+
+    private YApiUploadResult(String name, boolean success, String message) {
+        this.name = name;
+        this.success = success;
+        this.message = message;
+    }
+
+    public static YApiUploadResult success(String name) {
+        return new YApiUploadResult(name, true, "");
+    }
+
+    public static YApiUploadResult fail(String name, String message) {
+        return new YApiUploadResult(name, false, message);
+    }
+}
@@ -0,0 +1,118 @@
+package site.forgus.plugins.apigenerator.yapi.sdk;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import site.forgus.plugins.apigenerator.yapi.model.DateDeserializer;
+import site.forgus.plugins.apigenerator.yapi.model.DateSerializer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.text.DateFormat;
+import java.util.Date;
+
+/**
+ * YApi请求体与响应体的JSON序列化
+ */
+public class YApiJson {
+
+    private static final Gson gson;
+
+    static {
+        GsonBuilder builder = new GsonBuilder();
+        builder.registerTypeAdapter(Date.class, new DateSerializer()).setDateFormat(DateFormat.LONG);
+        builder.registerTypeAdapter(Date.class, new DateDeserializer()).setDateFormat(DateFormat.LONG);
+        gson = builder.create();
+    }
+
+    public static String toJson(Object payload) {
+        return gson.toJson(payload);
+    }
+
+    /**
+     * 直接输出到目标，不生成中间字符串
+     */
+    public static void toJson(Object payload, Appendable out) {
+        gson.toJson(payload, out);
+    }
+
+    /**
+     * 将对象的JSON作为字符串字面量(含引号)输出，边序列化边转义，用于内嵌在请求体中的JSON字段
+     */
+    public static void toJsonString(Object payload, Writer out) throws IOException {
+        out.write('"');
+        Writer escaping = new StringEscapingWriter(out);
+        gson.toJson(payload, escaping);
+        escaping.flush();
+        out.write('"');
+    }
+
+    public static <T> T fromJson(String json, Type type) {
+        return gson.fromJson(json, type);
+    }
+
+    public static <T> T fromJson(String json, Class<T> clazz) {
+        return gson.fromJson(json, clazz);
+    }
+
+    private static class StringEscapingWriter extends Writer {
+
+        private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+        private final Writer out;
+
+        StringEscapingWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            int start = offset;
+            int end = offset + length;
+            for (int i = offset; i < end; i++) {
+                char c = chars[i];
+                String replacement = escape(c);
+                if (replacement == null) {
+                    continue;
+                }
+                out.write(chars, start, i - start);
+                out.write(replacement);
+                start = i + 1;
+            }
+            out.write(chars, start, end - start);
+        }
+
+        private static String escape(char c) {
+            switch (c) {
+                case '"':
+                    return "\\\"";
+                case '\\':
+                    return "\\\\";
+                case '\n':
+                    return "\\n";
+                case '\r':
+                    return "\\r";
+                case '\t':
+                    return "\\t";
+                case '\u2028':
+                case '\u2029':
+                    break;
+                default:
+                    if (c >= 0x20) {
+                        return null;
+                    }
+            }
+            return "\\u" + HEX[c >> 12 & 0xF] + HEX[c >> 8 & 0xF] + HEX[c >> 4 & 0xF] + HEX[c & 0xF];
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
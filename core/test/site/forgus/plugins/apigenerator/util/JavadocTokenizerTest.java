@@ -0,0 +1,62 @@
+package site.forgus.plugins.apigenerator.util;
+
+import org.junit.Test;
+import site.forgus.plugins.apigenerator.normal.JavadocInfo;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JavadocTokenizerTest {
+
+    @Test
+    public void parseStandardLayout() {
+        JavadocInfo info = JavadocTokenizer.parse("/**\n * Get user\n * @param id user id\n * @description: real desc\n */");
+        assertEquals("Get user", info.getSummary());
+        assertEquals("real desc", info.getDescription());
+        assertEquals("real desc", info.getDesc());
+        assertEquals(Collections.singletonMap("id", "user id"), info.getParams());
+    }
+
+    @Test
+    public void parseIndentedLayout() {
+        JavadocInfo info = JavadocTokenizer.parse("/**\n     * 查询订单，<b>状态</b>见{@link StatusEnum#ACTIVE 启用状态}<br/>\n"
+                + "     * @param orderId 订单id\n     * @return 订单明细\n     */");
+        assertEquals("查询订单， 状态 见启用状态", info.getSummary());
+        assertEquals("订单id", info.getParams().get("orderId"));
+        assertEquals(Collections.singletonList("StatusEnum#ACTIVE"), info.getLinks());
+    }
+
+    @Test
+    public void parseEmptyComment() {
+        JavadocInfo info = JavadocTokenizer.parse("/**/");
+        assertEquals("", info.getSummary());
+        assertTrue(info.getParams().isEmpty());
+        assertEquals("", JavadocTokenizer.parse("/** */").getSummary());
+    }
+
+    @Test
+    public void parseInlineCode() {
+        JavadocInfo info = JavadocTokenizer.parse("/**\n * 返回{@code List<String>}类型\n */");
+        assertEquals("返回List<String>类型", info.getSummary());
+        assertTrue(info.getLinks().isEmpty());
+    }
+
+    @Test
+    public void parseMultiLineTags() {
+        JavadocInfo info = JavadocTokenizer.parse("/**\n * 第一行\n * 第二行\n * @param id 用户id，\n *           不能为空\n"
+                + " * @param names 用户名\n *   列表\n * @return 结果\n *   说明\n */");
+        assertEquals("第一行 第二行", info.getSummary());
+        assertEquals(Arrays.asList("id", "names"), Arrays.asList(info.getParams().keySet().toArray()));
+        assertEquals("用户id， 不能为空", info.getParams().get("id"));
+        assertEquals("用户名 列表", info.getParams().get("names"));
+    }
+
+    @Test
+    public void parseWithoutDelimiters() {
+        JavadocInfo info = JavadocTokenizer.parse("只有正文 @param a 参数a");
+        assertEquals("只有正文 @param a 参数a", info.getSummary());
+    }
+}
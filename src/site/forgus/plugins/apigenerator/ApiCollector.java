@@ -0,0 +1,125 @@
+package site.forgus.plugins.apigenerator;
+
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.PsiSearchScopeUtil;
+import com.intellij.psi.search.searches.AllClassesSearch;
+import com.intellij.psi.search.searches.AnnotatedElementsSearch;
+import org.apache.commons.lang.StringUtils;
+import site.forgus.plugins.apigenerator.config.ApiGeneratorConfig;
+import site.forgus.plugins.apigenerator.constant.WebAnnotation;
+
+import java.util.*;
+
+/**
+ * 收集指定范围内的Controller接口方法与普通接口(Dubbo接口)方法，需在读操作中调用
+ */
+public class ApiCollector {
+
+    private final Project project;
+    private final ApiGeneratorConfig config;
+
+    public ApiCollector(Project project, ApiGeneratorConfig config) {
+        this.project = project;
+        this.config = config;
+    }
+
+    /**
+     * 范围内全部普通接口(Dubbo接口)的方法
+     */
+    public List<SmartPsiElementPointer<PsiMember>> collectInterfaceMethods(GlobalSearchScope scope) {
+        List<PsiMember> methods = new ArrayList<>();
+        for (PsiClass apiInterface : findApiInterfaces(scope)) {
+            methods.addAll(Arrays.asList(apiInterface.getMethods()));
+        }
+        return ApiGenerator.createPointers(project, methods);
+    }
+
+    /**
+     * 查找标注了服务注解的接口，或实现类标注了服务注解的接口；未配置服务注解时返回范围内全部顶层接口
+     */
+    private Collection<PsiClass> findApiInterfaces(GlobalSearchScope scope) {
+        Set<PsiClass> apiInterfaces = new LinkedHashSet<>();
+        String[] annotationNames = StringUtils.split(config.apiInterfaceAnnotations, ", ");
+        if (annotationNames == null || annotationNames.length == 0) {
+            AllClassesSearch.search(scope, project).forEach(psiClass -> {
+                ProgressManager.checkCanceled();
+                if (isApiInterface(psiClass)) {
+                    apiInterfaces.add(psiClass);
+                }
+                return true;
+            });
+            return apiInterfaces;
+        }
+        for (String annotationName : annotationNames) {
+            PsiClass annotationClass = JavaPsiFacade.getInstance(project).findClass(annotationName, GlobalSearchScope.allScope(project));
+            if (annotationClass == null) {
+                continue;
+            }
+            //实现类通常在另一个模块，按整个项目查找
+            for (PsiClass psiClass : AnnotatedElementsSearch.searchPsiClasses(annotationClass, GlobalSearchScope.projectScope(project)).findAll()) {
+                ProgressManager.checkCanceled();
+                List<PsiClass> candidates = psiClass.isInterface() ? Collections.singletonList(psiClass) : Arrays.asList(psiClass.getInterfaces());
+                for (PsiClass candidate : candidates) {
+                    if (isApiInterface(candidate) && PsiSearchScopeUtil.isInScope(scope, candidate)) {
+                        apiInterfaces.add(candidate);
+                    }
+                }
+            }
+        }
+        return apiInterfaces;
+    }
+
+    /**
+     * 范围内全部Controller的REST接口方法
+     */
+    public List<SmartPsiElementPointer<PsiMethod>> collectHttpMethods(GlobalSearchScope scope) {
+        List<PsiMethod> mappingMethods = new ArrayList<>();
+        for (PsiClass controller : findControllers(scope)) {
+            for (PsiMethod method : controller.getMethods()) {
+                if (ApiGenerator.hasMappingAnnotation(method)) {
+                    mappingMethods.add(method);
+                }
+            }
+        }
+        return ApiGenerator.createPointers(project, mappingMethods);
+    }
+
+    /**
+     * 查找标注了Controller的类，包括通过组合注解（如RestController）间接标注的类
+     */
+    private Collection<PsiClass> findControllers(GlobalSearchScope scope) {
+        Set<PsiClass> controllers = new LinkedHashSet<>();
+        PsiClass controllerAnnotation = JavaPsiFacade.getInstance(project).findClass(WebAnnotation.Controller, GlobalSearchScope.allScope(project));
+        if (controllerAnnotation == null) {
+            return controllers;
+        }
+        Set<PsiClass> visited = new HashSet<>();
+        Deque<PsiClass> annotationClasses = new ArrayDeque<>();
+        annotationClasses.add(controllerAnnotation);
+        while (!annotationClasses.isEmpty()) {
+            PsiClass annotationClass = annotationClasses.poll();
+            if (!visited.add(annotationClass)) {
+                continue;
+            }
+            for (PsiClass psiClass : AnnotatedElementsSearch.searchPsiClasses(annotationClass, GlobalSearchScope.allScope(project)).findAll()) {
+                ProgressManager.checkCanceled();
+                if (psiClass.isAnnotationType()) {
+                    annotationClasses.add(psiClass);
+                } else if (!psiClass.isInterface() && PsiSearchScopeUtil.isInScope(scope, psiClass) && ApiGenerator.haveControllerAnnotation(psiClass)) {
+                    controllers.add(psiClass);
+                }
+            }
+        }
+        return controllers;
+    }
+
+    private boolean isApiInterface(PsiClass psiClass) {
+        return psiClass.isInterface()
+                && !psiClass.isAnnotationType()
+                && psiClass.getContainingClass() == null
+                && psiClass.getMethods().length > 0;
+    }
+}
@@ -0,0 +1,1162 @@
+package site.forgus.plugins.apigenerator;
+
+import com.google.common.base.Strings;
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.util.Ref;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.psi.*;
+import com.intellij.psi.javadoc.PsiDocComment;
+import org.apache.commons.lang.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import site.forgus.plugins.apigenerator.config.ApiGeneratorConfig;
+import site.forgus.plugins.apigenerator.metrics.MetricNames;
+import site.forgus.plugins.apigenerator.metrics.MetricsRegistry;
+import site.forgus.plugins.apigenerator.metrics.MetricsService;
+import site.forgus.plugins.apigenerator.constant.TypeEnum;
+import site.forgus.plugins.apigenerator.normal.AnnotationInfo;
+import site.forgus.plugins.apigenerator.normal.ApiDoc;
+import site.forgus.plugins.apigenerator.normal.ApiFingerprintStore;
+import site.forgus.plugins.apigenerator.normal.FieldBudget;
+import site.forgus.plugins.apigenerator.normal.FieldInfo;
+import site.forgus.plugins.apigenerator.normal.FieldSchema;
+import site.forgus.plugins.apigenerator.normal.MavenCoordinate;
+import site.forgus.plugins.apigenerator.normal.MavenCoordinateResolver;
+import site.forgus.plugins.apigenerator.normal.MethodInfo;
+import site.forgus.plugins.apigenerator.normal.TypeSchemaCache;
+import site.forgus.plugins.apigenerator.openapi.OpenApiExporter;
+import site.forgus.plugins.apigenerator.openapi.OpenApiFormat;
+import site.forgus.plugins.apigenerator.openapi.model.OpenApiOperation;
+import site.forgus.plugins.apigenerator.openapi.model.OpenApiParameter;
+import site.forgus.plugins.apigenerator.util.*;
+import site.forgus.plugins.apigenerator.yapi.enums.RequestBodyTypeEnum;
+import site.forgus.plugins.apigenerator.yapi.enums.RequestMethodEnum;
+import site.forgus.plugins.apigenerator.yapi.enums.ResponseBodyTypeEnum;
+import site.forgus.plugins.apigenerator.yapi.model.*;
+import site.forgus.plugins.apigenerator.yapi.sdk.YApiCategoryCache;
+import site.forgus.plugins.apigenerator.yapi.sdk.YApiInterfaceIndex;
+import site.forgus.plugins.apigenerator.yapi.sdk.YApiOutbox;
+import site.forgus.plugins.apigenerator.yapi.sdk.YApiSdk;
+import site.forgus.plugins.apigenerator.yapi.sdk.YApiUploadQueue;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 接口文档生成：上传YApi、生成markdown、导出OpenAPI，供编辑器动作、批量动作与命令行共用
+ */
+public class ApiGenerator {
+
+    private static final String SLASH = "/";
+    private static final String OPENAPI_DOC_VERSION = "1.0.0";
+
+    private final Project project;
+    private final ApiGeneratorConfig config;
+    private final boolean interactive;
+
+    /**
+     * @param config      本次生成使用的配置
+     * @param interactive 是否允许弹框，命令行中为false，缺少信息时直接失败
+     */
+    public ApiGenerator(Project project, ApiGeneratorConfig config, boolean interactive) {
+        this.project = project;
+        this.config = config;
+        this.interactive = interactive;
+    }
+
+    /**
+     * 在后台任务中上传接口到YApi
+     *
+     * @param pointers     REST接口方法
+     * @param wholeProject 是否为整个项目的接口，是则比对时报告孤立接口
+     */
+    public void uploadToYApi(List<SmartPsiElementPointer<PsiMethod>> pointers, boolean wholeProject) {
+        ProgressManager.getInstance().run(createYApiUploadTask(pointers, wholeProject));
+    }
+
+    public YApiUploadTask createYApiUploadTask(List<SmartPsiElementPointer<PsiMethod>> pointers, boolean wholeProject) {
+        return new YApiUploadTask(pointers, wholeProject);
+    }
+
+    /**
+     * 上传接口到YApi，可由后台任务执行，也可在命令行中直接调用run。
+     * 开启比对时先拉取YApi接口列表，按方法与路径比对，只上传新增或变更的接口；
+     * 上传整个项目时报告(可选删除)YApi上存在而代码中已删除的接口
+     */
+    public class YApiUploadTask extends Task.Backgroundable {
+
+        private final List<SmartPsiElementPointer<PsiMethod>> pointers;
+        private final List<String> failMessages = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final YApiOutbox outbox;
+        private final List<YApiOutboxEntry> importBatch = new ArrayList<>();
+        private final boolean wholeProject;
+        private final Set<String> localEndpoints = ConcurrentHashMap.newKeySet();
+        private final List<String> orphans = new ArrayList<>();
+        private final AtomicInteger enqueued = new AtomicInteger();
+        private MetricsRegistry metrics;
+
+        private YApiUploadTask(List<SmartPsiElementPointer<PsiMethod>> pointers, boolean wholeProject) {
+            super(project, "Uploading Api To YApi", true);
+            this.pointers = pointers;
+            this.wholeProject = wholeProject;
+            this.outbox = YApiOutbox.getInstance(project);
+        }
+
+        @Override
+        public void run(@NotNull ProgressIndicator indicator) {
+            indicator.setIndeterminate(false);
+            MetricsService metricsService = MetricsService.getInstance(project);
+            metrics = metricsService.begin("Upload " + pointers.size() + " api");
+            AstLoadingGuard astLoadingGuard = AstLoadingGuard.install(project);
+            try {
+                MetricsService.run(metrics, () -> upload(indicator));
+            } finally {
+                int unexpectedLoads = AstLoadingGuard.uninstall(astLoadingGuard);
+                if (unexpectedLoads > 0) {
+                    failMessages.add(unexpectedLoads + " unexpected AST loads.");
+                }
+                metricsService.end(metrics);
+            }
+        }
+
+        private void upload(ProgressIndicator indicator) {
+            ApiFingerprintStore fingerprintStore = ApiFingerprintStore.getInstance(project);
+            String settingHash = ApiFingerprintStore.settingHash(config.getState());
+            Map<String, YApiInterfaceSummary> remoteInterfaces;
+            try {
+                if (!initProjectId()) {
+                    return;
+                }
+                Set<String> catNames = ReadActionUtil.compute(project, indicator, () -> listCatNames(pointers));
+                YApiCategoryCache.getInstance(project).prepareCategories(config.getState().yApiServerUrl, config.getState().projectToken, config.getState().projectId, catNames);
+                remoteInterfaces = config.getState().diffSync ? listRemoteInterfaces(indicator) : null;
+            } catch (IOException e) {
+                failMessages.add(e.getMessage());
+                return;
+            }
+            YApiUploadQueue uploadQueue = new YApiUploadQueue(config.getState().uploadConcurrency, metrics);
+            AtomicInteger extracted = new AtomicInteger();
+            //取消或异常时已落盘的接口也交给后台发送
+            try {
+                JobLauncher.getInstance().invokeConcurrentlyUnderProgress(pointers, indicator, MetricsService.bind(metrics, pointer -> {
+                    String key = ReadActionUtil.compute(project, indicator, () -> {
+                        PsiMethod method = pointer.getElement();
+                        return method == null ? null : getYApiKey(method);
+                    });
+                    String endpointName = key == null ? null : fingerprintStore.getEndpoint(key);
+                    if (key != null && config.getState().incremental && fingerprintStore.isSourceUnchanged(key, settingHash)
+                            && existsOnServer(remoteInterfaces, endpointName)) {
+                        if (endpointName != null) {
+                            localEndpoints.add(endpointName);
+                        }
+                        skipped.incrementAndGet();
+                        metrics.increment(MetricNames.INCREMENTAL_SKIPPED);
+                        indicator.setFraction((double) extracted.incrementAndGet() / pointers.size());
+                        return true;
+                    }
+                    YApiOutboxEntry resumable = key == null ? null : outbox.findResumable(key, settingHash);
+                    if (resumable != null) {
+                        //上次未发送成功且源码未变，直接续传
+                        metrics.increment(MetricNames.OUTBOX_RESUMED);
+                        localEndpoints.add(resumable.getName());
+                        indicator.setFraction((double) extracted.incrementAndGet() / pointers.size());
+                        enqueue(indicator, uploadQueue, resumable);
+                        return true;
+                    }
+                    long extractStart = System.nanoTime();
+                    YApiEndpoint endpoint = key == null ? null : ReadActionUtil.compute(project, indicator, () -> {
+                        PsiMethod method = pointer.getElement();
+                        return method == null ? null : buildYApiInterface(key, method);
+                    });
+                    metrics.record(MetricNames.EXTRACT, extractStart);
+                    indicator.setFraction((double) extracted.incrementAndGet() / pointers.size());
+                    if (endpoint == null) {
+                        failMessages.add("Invalid Class File!");
+                        return true;
+                    }
+                    localEndpoints.add(endpoint.getName());
+                    String payloadHash = ApiFingerprintStore.hash(endpoint.getCatName() + ApiFingerprintStore.hash(endpoint.getYApiInterface()));
+                    if (config.getState().incremental && fingerprintStore.isPayloadUnchanged(key, payloadHash)) {
+                        if (existsOnServer(remoteInterfaces, endpoint.getName())) {
+                            fingerprintStore.update(key, settingHash, payloadHash, endpoint.getDependencies(), null, endpoint.getName());
+                            skipped.incrementAndGet();
+                            metrics.increment(MetricNames.INCREMENTAL_SKIPPED);
+                            return true;
+                        }
+                        //内容未变但已在YApi上被删除，重新上传
+                        metrics.increment(MetricNames.YAPI_DIFF_MISSING);
+                    }
+                    indicator.setText2(endpoint.getName());
+                    YApiOutboxEntry entry = buildOutboxEntry(key, endpoint, settingHash, payloadHash);
+                    try {
+                        outbox.put(entry);
+                    } catch (IOException e) {
+                        failMessages.add(endpoint.getName() + ": " + e.getMessage());
+                        return true;
+                    }
+                    enqueue(indicator, uploadQueue, entry);
+                    return true;
+                }));
+                submitImportBatch(indicator, uploadQueue, takeImportBatch(0));
+                //有接口解析失败时无法确定哪些接口已从代码中删除
+                if (remoteInterfaces != null && wholeProject && failMessages.isEmpty()) {
+                    handleOrphans(remoteInterfaces);
+                }
+                indicator.setText2("Waiting for YApi responses");
+                for (YApiUploadResult result : uploadQueue.awaitResults(indicator)) {
+                    if (!result.isSuccess()) {
+                        failMessages.add(result.getName() + ": " + result.getMessage());
+                    }
+                }
+            } finally {
+                if (outbox.size() > 0) {
+                    outbox.scheduleFlush(0);
+                }
+                if (remoteInterfaces != null && enqueued.get() > 0) {
+                    YApiInterfaceIndex.getInstance(project).invalidate(config.getState().yApiServerUrl, config.getState().projectToken);
+                }
+            }
+        }
+
+        private Map<String, YApiInterfaceSummary> listRemoteInterfaces(ProgressIndicator indicator) throws IOException {
+            indicator.setText2("Listing YApi interfaces");
+            return YApiInterfaceIndex.getInstance(project).getInterfaces(config.getState().yApiServerUrl, config.getState().projectToken, config.getState().projectId);
+        }
+
+        /**
+         * 未比对YApi接口列表时视为存在
+         */
+        private boolean existsOnServer(Map<String, YApiInterfaceSummary> remoteInterfaces, String endpointName) {
+            return remoteInterfaces == null || endpointName != null && remoteInterfaces.containsKey(endpointName);
+        }
+
+        /**
+         * 找出YApi上存在而代码中已删除的接口，按配置删除
+         */
+        private void handleOrphans(Map<String, YApiInterfaceSummary> remoteInterfaces) {
+            List<YApiInterfaceSummary> orphanInterfaces = new ArrayList<>();
+            for (YApiInterfaceSummary summary : remoteInterfaces.values()) {
+                if (!localEndpoints.contains(summary.getName())) {
+                    orphanInterfaces.add(summary);
+                    orphans.add(summary.getName());
+                    metrics.increment(MetricNames.YAPI_DIFF_ORPHAN);
+                }
+            }
+            if (orphanInterfaces.isEmpty() || !config.getState().removeOrphans) {
+                return;
+            }
+            String serverUrl = config.getState().yApiServerUrl;
+            String token = config.getState().projectToken;
+            for (YApiInterfaceSummary summary : orphanInterfaces) {
+                try {
+                    YApiResponse yApiResponse = YApiSdk.deleteInterface(project, serverUrl, token, summary.get_id());
+                    if (yApiResponse == null || yApiResponse.getErrcode() != 0) {
+                        failMessages.add("Remove " + summary.getName() + " failed" + (yApiResponse == null ? "" : ", cause:" + yApiResponse.getErrmsg()));
+                    }
+                } catch (IOException e) {
+                    failMessages.add("Remove " + summary.getName() + " failed, cause:" + e.getMessage());
+                }
+            }
+            YApiInterfaceIndex.getInstance(project).invalidate(serverUrl, token);
+        }
+
+        /**
+         * 批量导入模式下攒够一批再提交，否则逐个提交
+         */
+        private void enqueue(ProgressIndicator indicator, YApiUploadQueue uploadQueue, YApiOutboxEntry entry) {
+            enqueued.incrementAndGet();
+            if (!config.getState().bulkImport) {
+                uploadQueue.submit(indicator, entry.getName(), () -> send(entry));
+                return;
+            }
+            synchronized (importBatch) {
+                importBatch.add(entry);
+            }
+            submitImportBatch(indicator, uploadQueue, takeImportBatch(config.getState().importChunkSize));
+        }
+
+        private List<YApiOutboxEntry> takeImportBatch(int minSize) {
+            synchronized (importBatch) {
+                if (importBatch.isEmpty() || importBatch.size() < minSize) {
+                    return Collections.emptyList();
+                }
+                List<YApiOutboxEntry> batch = new ArrayList<>(importBatch);
+                importBatch.clear();
+                return batch;
+            }
+        }
+
+        private void submitImportBatch(ProgressIndicator indicator, YApiUploadQueue uploadQueue, List<YApiOutboxEntry> batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            String mergeMode = config.getState().importMergeMode;
+            uploadQueue.submit(indicator, "Import " + batch.size() + " api", () -> outbox.sendBatch(batch, mergeMode));
+        }
+
+        private String send(YApiOutboxEntry entry) {
+            long uploadStart = System.nanoTime();
+            try {
+                return outbox.send(entry);
+            } finally {
+                metrics.record(MetricNames.YAPI_UPLOAD, uploadStart);
+            }
+        }
+
+        @Override
+        public void onSuccess() {
+            if (!orphans.isEmpty()) {
+                NotificationUtil.warnNotify(orphans.size() + " YApi api not found in code" + (config.getState().removeOrphans ? ", removed" : "")
+                        + ":\n" + StringUtils.join(orphans, "\n"), project);
+            }
+            if (failMessages.isEmpty()) {
+                NotificationUtil.infoNotify(skipped.get() > 0 ? "Upload api success, " + skipped.get() + " unchanged api skipped." : "Upload api success.", project);
+                return;
+            }
+            NotificationUtil.errorNotify("Upload api failed, cause:" + StringUtils.join(failMessages, "\n"), project);
+        }
+
+        public List<String> getFailMessages() {
+            return failMessages;
+        }
+
+        public List<String> getOrphans() {
+            return orphans;
+        }
+    }
+
+    /**
+     * 在后台任务中生成markdown文档
+     *
+     * @param pointers 普通接口的方法或类
+     */
+    public void generateMarkdowns(List<SmartPsiElementPointer<PsiMember>> pointers) {
+        String dirPath = getDirPath();
+        if (!mkDirectory(dirPath)) {
+            return;
+        }
+        ProgressManager.getInstance().run(createMarkdownTask(pointers, dirPath));
+    }
+
+    public MarkdownTask createMarkdownTask(List<SmartPsiElementPointer<PsiMember>> pointers, String dirPath) {
+        return new MarkdownTask(pointers, dirPath);
+    }
+
+    /**
+     * 生成markdown文档，可由后台任务执行，也可在命令行中直接调用run
+     */
+    public class MarkdownTask extends Task.Backgroundable {
+
+        private final List<SmartPsiElementPointer<PsiMember>> pointers;
+        private final String dirPath;
+        private final AtomicBoolean generateSuccess = new AtomicBoolean(false);
+        private final List<String> failMessages = Collections.synchronizedList(new ArrayList<>());
+        private MetricsRegistry metrics;
+
+        private MarkdownTask(List<SmartPsiElementPointer<PsiMember>> pointers, String dirPath) {
+            super(project, "Generating Api Docs", true);
+            this.pointers = pointers;
+            this.dirPath = dirPath;
+        }
+
+        @Override
+        public void run(@NotNull ProgressIndicator indicator) {
+            indicator.setIndeterminate(false);
+            MetricsService metricsService = MetricsService.getInstance(project);
+            metrics = metricsService.begin("Generate " + pointers.size() + " api docs");
+            AstLoadingGuard astLoadingGuard = AstLoadingGuard.install(project);
+            try {
+                MetricsService.run(metrics, () -> generate(indicator));
+            } finally {
+                int unexpectedLoads = AstLoadingGuard.uninstall(astLoadingGuard);
+                if (unexpectedLoads > 0) {
+                    failMessages.add(unexpectedLoads + " unexpected AST loads.");
+                }
+                metricsService.end(metrics);
+            }
+        }
+
+        private void generate(ProgressIndicator indicator) {
+            ApiFingerprintStore fingerprintStore = ApiFingerprintStore.getInstance(project);
+            String settingHash = ApiFingerprintStore.settingHash(config.getState());
+            AtomicInteger generated = new AtomicInteger();
+            DocWriteQueue writeQueue = new DocWriteQueue(metrics);
+            //需要确认覆盖的文档，并行解析结束后统一询问一次
+            Map<String, Runnable> conflicts = Collections.synchronizedMap(new TreeMap<>());
+            //文档文件路径到接口标识，重载方法等文件名相同的接口只写入先到的一个
+            Map<String, String> fileOwners = new ConcurrentHashMap<>();
+            boolean completed = false;
+            try {
+                JobLauncher.getInstance().invokeConcurrentlyUnderProgress(pointers, indicator, MetricsService.bind(metrics, pointer -> {
+                    String key = ReadActionUtil.compute(project, indicator, () -> getApiDocKey(dirPath, pointer.getElement()));
+                    if (key != null && config.getState().incremental && fingerprintStore.isSourceUnchanged(key, settingHash)) {
+                        String outputPath = fingerprintStore.getOutputPath(key);
+                        indicator.setFraction((double) generated.incrementAndGet() / pointers.size());
+                        if (outputPath == null || claimFile(fileOwners, outputPath, key)) {
+                            metrics.increment(MetricNames.INCREMENTAL_SKIPPED);
+                            generateSuccess.set(true);
+                        }
+                        return true;
+                    }
+                    ApiDoc apiDoc;
+                    long extractStart = System.nanoTime();
+                    try {
+                        apiDoc = key == null ? null : ReadActionUtil.compute(project, indicator, () -> buildApiDoc(project, pointer.getElement()));
+                    } catch (IOException e) {
+                        failMessages.add(e.getMessage());
+                        return true;
+                    } finally {
+                        metrics.record(MetricNames.EXTRACT, extractStart);
+                        indicator.setFraction((double) generated.incrementAndGet() / pointers.size());
+                    }
+                    if (apiDoc == null) {
+                        return true;
+                    }
+                    indicator.setText2(apiDoc.getFileName());
+                    File file = getApiDocFile(dirPath, apiDoc);
+                    if (!claimFile(fileOwners, file.getPath(), key)) {
+                        return true;
+                    }
+                    String payloadHash = ApiFingerprintStore.hash(apiDoc.getContent());
+                    if (config.getState().incremental && file.exists() && fingerprintStore.isPayloadUnchanged(key, payloadHash)) {
+                        fingerprintStore.update(key, settingHash, payloadHash, apiDoc.getDependencies(), file.getPath());
+                        metrics.increment(MetricNames.INCREMENTAL_SKIPPED);
+                        generateSuccess.set(true);
+                        return true;
+                    }
+                    Runnable write = () -> writeQueue.submit(indicator, file, apiDoc.getContent(), () -> {
+                        fingerprintStore.update(key, settingHash, payloadHash, apiDoc.getDependencies(), file.getPath());
+                        generateSuccess.set(true);
+                    });
+                    if (needConfirmOverwrite(file, apiDoc)) {
+                        conflicts.put(file.getName(), write);
+                        return true;
+                    }
+                    write.run();
+                    return true;
+                }));
+                if (!conflicts.isEmpty() && confirmOverwrite(conflicts.keySet())) {
+                    conflicts.values().forEach(Runnable::run);
+                }
+                indicator.setText2("Writing api docs");
+                failMessages.addAll(writeQueue.awaitErrors(indicator));
+                completed = true;
+            } finally {
+                if (!completed) {
+                    //取消或异常时停止未开始的写入，已写入的文件仍刷新VFS
+                    writeQueue.cancel();
+                }
+            }
+        }
+
+        /**
+         * 登记文档文件的写入接口，文件已属于其他接口时报错并清除本接口的指纹，避免两个指纹指向同一文件
+         *
+         * @return 是否由本接口写入
+         */
+        private boolean claimFile(Map<String, String> fileOwners, String path, String key) {
+            String owner = fileOwners.putIfAbsent(path, key);
+            if (owner == null || owner.equals(key)) {
+                return true;
+            }
+            ApiFingerprintStore.getInstance(project).remove(key);
+            failMessages.add(new File(path).getName() + ": same file name as " + owner.substring(owner.lastIndexOf(':') + 1)
+                    + ", skipped " + key.substring(key.lastIndexOf(':') + 1));
+            return false;
+        }
+
+        @Override
+        public void onSuccess() {
+            if (!failMessages.isEmpty()) {
+                NotificationUtil.errorNotify(StringUtils.join(failMessages, "\n"), project);
+            }
+            if (generateSuccess.get()) {
+                NotificationUtil.infoNotify("generate api doc success.", project);
+            }
+        }
+
+        public List<String> getFailMessages() {
+            return failMessages;
+        }
+    }
+
+    /**
+     * 在后台任务中导出OpenAPI文档到文档目录
+     *
+     * @param pointers REST接口方法
+     * @param format   文档格式
+     */
+    public void exportOpenApi(List<SmartPsiElementPointer<PsiMethod>> pointers, OpenApiFormat format) {
+        String dirPath = getDirPath();
+        if (!mkDirectory(dirPath)) {
+            return;
+        }
+        ProgressManager.getInstance().run(createOpenApiExportTask(pointers, getOpenApiFile(dirPath, format), format));
+    }
+
+    public OpenApiExportTask createOpenApiExportTask(List<SmartPsiElementPointer<PsiMethod>> pointers, File file, OpenApiFormat format) {
+        return new OpenApiExportTask(pointers, file, format);
+    }
+
+    public File getOpenApiFile(String dirPath, OpenApiFormat format) {
+        return new File(dirPath + SLASH + "openapi." + format.getExtension());
+    }
+
+    /**
+     * 导出OpenAPI文档，可由后台任务执行，也可在命令行中直接调用run
+     */
+    public class OpenApiExportTask extends Task.Backgroundable {
+
+        private final List<SmartPsiElementPointer<PsiMethod>> pointers;
+        private final File file;
+        private final OpenApiFormat format;
+        private final List<String> failMessages = Collections.synchronizedList(new ArrayList<>());
+        private int exported;
+        private MetricsRegistry metrics;
+
+        private OpenApiExportTask(List<SmartPsiElementPointer<PsiMethod>> pointers, File file, OpenApiFormat format) {
+            super(project, "Exporting OpenAPI", true);
+            this.pointers = pointers;
+            this.file = file;
+            this.format = format;
+        }
+
+        @Override
+        public void run(@NotNull ProgressIndicator indicator) {
+            indicator.setIndeterminate(false);
+            MetricsService metricsService = MetricsService.getInstance(project);
+            metrics = metricsService.begin("Export " + pointers.size() + " api to OpenAPI");
+            AstLoadingGuard astLoadingGuard = AstLoadingGuard.install(project);
+            try (OpenApiExporter exporter = new OpenApiExporter(format, project.getName(), OPENAPI_DOC_VERSION)) {
+                MetricsService.run(metrics, () -> export(indicator, exporter));
+            } catch (IOException e) {
+                failMessages.add(e.getMessage());
+            } finally {
+                int unexpectedLoads = AstLoadingGuard.uninstall(astLoadingGuard);
+                if (unexpectedLoads > 0) {
+                    failMessages.add(unexpectedLoads + " unexpected AST loads.");
+                }
+                metricsService.end(metrics);
+            }
+        }
+
+        /**
+         * 接口渲染后立即暂存，共享类型只渲染一次，全部完成后流式写出文档
+         */
+        private void export(ProgressIndicator indicator, OpenApiExporter exporter) throws IOException {
+            AtomicInteger extracted = new AtomicInteger();
+            JobLauncher.getInstance().invokeConcurrentlyUnderProgress(pointers, indicator, MetricsService.bind(metrics, pointer -> {
+                long extractStart = System.nanoTime();
+                try {
+                    OpenApiExporter.RenderedOperation rendered = ReadActionUtil.compute(project, indicator, () -> {
+                        PsiMethod method = pointer.getElement();
+                        OpenApiOperation operation = method == null ? null : buildOpenApiOperation(method);
+                        if (operation == null) {
+                            return null;
+                        }
+                        long renderStart = System.nanoTime();
+                        try {
+                            return exporter.render(operation);
+                        } finally {
+                            metrics.record(MetricNames.RENDER_OPENAPI, renderStart);
+                        }
+                    });
+                    if (rendered != null) {
+                        exporter.commit(rendered);
+                    }
+                } catch (IOException e) {
+                    failMessages.add(e.getMessage());
+                } finally {
+                    metrics.record(MetricNames.EXTRACT, extractStart);
+                    indicator.setFraction((double) extracted.incrementAndGet() / pointers.size());
+                }
+                return true;
+            }));
+            indicator.setText2("Writing " + file.getName());
+            long writeStart = System.nanoTime();
+            try {
+                DocWriteQueue.writeAtomically(file, exporter::writeTo);
+            } finally {
+                metrics.record(MetricNames.WRITE_FILE, writeStart);
+            }
+            exported = exporter.getOperationCount();
+            LocalFileSystem.getInstance().refreshIoFiles(Collections.singletonList(file), true, false, null);
+        }
+
+        @Override
+        public void onSuccess() {
+            if (!failMessages.isEmpty()) {
+                NotificationUtil.errorNotify("Export OpenAPI failed, cause:" + StringUtils.join(failMessages, "\n"), project);
+                return;
+            }
+            NotificationUtil.infoNotify("Export " + exported + " api to " + file.getPath() + " success.", project);
+        }
+
+        public List<String> getFailMessages() {
+            return failMessages;
+        }
+    }
+
+    public static <T extends PsiElement> List<SmartPsiElementPointer<T>> createPointers(Project project, List<T> elements) {
+        SmartPointerManager pointerManager = SmartPointerManager.getInstance(project);
+        List<SmartPsiElementPointer<T>> pointers = new ArrayList<>();
+        for (T element : elements) {
+            pointers.add(pointerManager.createSmartPsiElementPointer(element));
+        }
+        return pointers;
+    }
+
+    /**
+     * 未配置YApi地址或token时弹框输入，需在事件线程中调用
+     */
+    public boolean inputYApiSetting() {
+        if (StringUtils.isEmpty(config.getState().yApiServerUrl)) {
+            String serverUrl = Messages.showInputDialog("Input YApi Server Url", "YApi Server Url", Messages.getInformationIcon());
+            if (StringUtils.isEmpty(serverUrl)) {
+                NotificationUtil.warnNotify("YApi server url can not be empty.", project);
+                return false;
+            }
+            config.getState().yApiServerUrl = serverUrl;
+        }
+        if (StringUtils.isEmpty(config.getState().projectToken)) {
+            String projectToken = Messages.showInputDialog("Input Project Token", "Project Token", Messages.getInformationIcon());
+            if (StringUtils.isEmpty(projectToken)) {
+                NotificationUtil.warnNotify("Project token can not be empty.", project);
+                return false;
+            }
+            config.getState().projectToken = projectToken;
+        }
+        return true;
+    }
+
+    private boolean initProjectId() throws IOException {
+        if (StringUtils.isNotEmpty(config.getState().projectId)) {
+            return true;
+        }
+        YApiProject projectInfo = YApiSdk.getProjectInfo(project, config.getState().yApiServerUrl, config.getState().projectToken);
+        String projectId;
+        if (projectInfo.get_id() == null) {
+            if (!interactive) {
+                throw new IOException("Can not get YApi project id by the project token.");
+            }
+            Ref<String> input = Ref.create();
+            ApplicationManager.getApplication().invokeAndWait(() -> input.set(Messages.showInputDialog("Input Project Id", "Project Id", Messages.getInformationIcon())), ModalityState.defaultModalityState());
+            projectId = input.get();
+        } else {
+            projectId = projectInfo.get_id().toString();
+        }
+        if (StringUtils.isEmpty(projectId)) {
+            NotificationUtil.warnNotify("Project id can not be empty.", project);
+            return false;
+        }
+        config.getState().projectId = projectId;
+        return true;
+    }
+
+    private YApiOutboxEntry buildOutboxEntry(String key, YApiEndpoint endpoint, String settingHash, String payloadHash) {
+        YApiOutboxEntry entry = new YApiOutboxEntry();
+        entry.setKey(key);
+        entry.setServerUrl(config.getState().yApiServerUrl);
+        entry.setToken(config.getState().projectToken);
+        entry.setProjectId(config.getState().projectId);
+        entry.setCatName(endpoint.getCatName());
+        entry.setYApiInterface(endpoint.getYApiInterface());
+        entry.setSettingHash(settingHash);
+        entry.setPayloadHash(payloadHash);
+        entry.setDependencies(endpoint.getDependencies());
+        return entry;
+    }
+
+    private String getYApiKey(PsiMethod psiMethod) {
+        return "yapi:" + config.getState().yApiServerUrl + ":" + config.getState().projectId + ":" + ApiFingerprintStore.getMethodSignature(psiMethod);
+    }
+
+    private String buildJson5(Project project, FieldInfo fieldInfo) {
+        long start = System.nanoTime();
+        try {
+            return JsonUtil.buildJson5(fieldInfo);
+        } finally {
+            MetricsService.current(project).record(MetricNames.RENDER_JSON5, start);
+        }
+    }
+
+    private YApiEndpoint buildYApiInterface(String key, PsiMethod psiMethod) {
+        PsiClass containingClass = psiMethod.getContainingClass();
+        if (containingClass == null) {
+            return null;
+        }
+        AnnotationInfo classAnnotationInfo = AnnotationClassifier.classify(containingClass);
+        if (!classAnnotationInfo.isController()) {
+            return null;
+        }
+        MethodInfo methodInfo = new MethodInfo(psiMethod);
+        AnnotationInfo methodAnnotationInfo = AnnotationClassifier.classify(psiMethod);
+        YApiInterface yApiInterface = new YApiInterface();
+        yApiInterface.setToken(config.getState().projectToken);
+        RequestMethodEnum requestMethodEnum = methodAnnotationInfo.getRequestMethod();
+        yApiInterface.setMethod(requestMethodEnum.name());
+        if (getRequestBodyParam(methodInfo.getRequestFields()) != null) {
+            yApiInterface.setReq_body_type(RequestBodyTypeEnum.JSON.getValue());
+            yApiInterface.setReq_body_other(buildJson5(psiMethod.getProject(), getRequestBodyParam(methodInfo.getRequestFields())));
+        } else {
+            if (yApiInterface.getMethod().equals(RequestMethodEnum.POST.name())) {
+                yApiInterface.setReq_body_type(RequestBodyTypeEnum.FORM.getValue());
+                yApiInterface.setReq_body_form(listYApiForms(methodInfo.getRequestFields()));
+            }
+        }
+        yApiInterface.setReq_query(listYApiQueries(methodInfo.getRequestFields(), requestMethodEnum));
+        yApiInterface.setTitle(requestMethodEnum.name() + " " + methodInfo.getDesc());
+        yApiInterface.setPath(buildPath(classAnnotationInfo.getMapping(), methodAnnotationInfo.getMapping()));
+        if (methodAnnotationInfo.isResponseBody() || classAnnotationInfo.isResponseBody()) {
+            yApiInterface.setReq_headers(Collections.singletonList(YApiHeader.json()));
+            yApiInterface.setRes_body(buildJson5(psiMethod.getProject(), methodInfo.getResponse()));
+        } else {
+            yApiInterface.setReq_headers(Collections.singletonList(YApiHeader.form()));
+            yApiInterface.setRes_body_type(ResponseBodyTypeEnum.RAW.getValue());
+            yApiInterface.setRes_body("");
+        }
+        yApiInterface.setReq_params(listYApiPathVariables(methodInfo.getRequestFields()));
+        yApiInterface.setDesc(Objects.nonNull(yApiInterface.getDesc()) ? yApiInterface.getDesc() : "<pre><code data-language=\"java\" class=\"java\">" + getMethodDesc(psiMethod) + "</code> </pre>");
+        return new YApiEndpoint(key, yApiInterface, getCatName(DesUtil.getDocComment(containingClass)), ApiFingerprintStore.collectDependencies(psiMethod, methodInfo));
+    }
+
+    private OpenApiOperation buildOpenApiOperation(PsiMethod psiMethod) {
+        PsiClass containingClass = psiMethod.getContainingClass();
+        if (containingClass == null) {
+            return null;
+        }
+        AnnotationInfo classAnnotationInfo = AnnotationClassifier.classify(containingClass);
+        if (!classAnnotationInfo.isController()) {
+            return null;
+        }
+        MethodInfo methodInfo = new MethodInfo(psiMethod);
+        AnnotationInfo methodAnnotationInfo = AnnotationClassifier.classify(psiMethod);
+        RequestMethodEnum requestMethodEnum = methodAnnotationInfo.getRequestMethod();
+        OpenApiOperation operation = new OpenApiOperation();
+        String path = buildPath(classAnnotationInfo.getMapping(), methodAnnotationInfo.getMapping());
+        operation.setPath(StringUtils.isEmpty(path) ? SLASH : path);
+        operation.setMethod(requestMethodEnum.name().toLowerCase());
+        operation.setOperationId(methodInfo.getClassName() + "_" + methodInfo.getMethodName());
+        operation.setSummary(methodInfo.getDesc());
+        operation.setTag(getCatName(DesUtil.getDocComment(containingClass)));
+        for (FieldInfo fieldInfo : methodInfo.getRequestFields()) {
+            PsiAnnotation pathVariable = fieldInfo.getAnnotationInfo().getPathVariable();
+            if (pathVariable != null) {
+                operation.getParameters().add(new OpenApiParameter("path", getPathVariableName(pathVariable, fieldInfo.getName()), true, fieldInfo));
+            }
+        }
+        for (FieldInfo fieldInfo : listQueryFields(methodInfo.getRequestFields(), requestMethodEnum)) {
+            operation.getParameters().add(new OpenApiParameter("query", fieldInfo.getName(), fieldInfo.isRequire(), fieldInfo));
+        }
+        FieldInfo requestBody = getRequestBodyParam(methodInfo.getRequestFields());
+        if (requestBody != null) {
+            operation.setRequestBody(requestBody);
+        } else if (RequestMethodEnum.POST.equals(requestMethodEnum)) {
+            operation.getFormFields().addAll(listFormFields(methodInfo.getRequestFields()));
+        }
+        boolean responseBody = methodAnnotationInfo.isResponseBody() || classAnnotationInfo.isResponseBody();
+        if (responseBody && psiMethod.getReturnType() != null && !PsiType.VOID.equals(psiMethod.getReturnType())) {
+            operation.setResponse(methodInfo.getResponse());
+        }
+        return operation;
+    }
+
+    private String buildPath(PsiAnnotation classRequestMapping, PsiAnnotation methodMapping) {
+        String classPath = getPathFromAnnotation(classRequestMapping);
+        String methodPath = getPathFromAnnotation(methodMapping);
+        return classPath + methodPath;
+    }
+
+    private FieldInfo getRequestBodyParam(List<FieldInfo> params) {
+        if (params == null) {
+            return null;
+        }
+        for (FieldInfo fieldInfo : params) {
+            if (fieldInfo.getAnnotationInfo().isRequestBody()) {
+                return fieldInfo;
+            }
+        }
+        return null;
+    }
+
+    private String getMethodDesc(PsiMethod psiMethod) {
+        String methodDesc = SignatureUtil.formatMethod(psiMethod);
+        if (!Strings.isNullOrEmpty(methodDesc)) {
+            methodDesc = methodDesc.replace("<", "&lt;").replace(">", "&gt;");
+        }
+        return methodDesc;
+    }
+
+    private List<YApiPathVariable> listYApiPathVariables(List<FieldInfo> requestFields) {
+        List<YApiPathVariable> yApiPathVariables = new ArrayList<>();
+        for (FieldInfo fieldInfo : requestFields) {
+            PsiAnnotation pathVariable = fieldInfo.getAnnotationInfo().getPathVariable();
+            if(pathVariable == null) {
+                continue;
+            }
+            YApiPathVariable yApiPathVariable = new YApiPathVariable();
+            yApiPathVariable.setName(getPathVariableName(pathVariable,fieldInfo.getName()));
+            yApiPathVariable.setDesc(fieldInfo.getDesc());
+            yApiPathVariable.setExample(fieldInfo.getExample().toString());
+            yApiPathVariables.add(yApiPathVariable);
+        }
+        return yApiPathVariables;
+    }
+
+    private String getPathVariableName(PsiAnnotation pathVariable,String fieldName) {
+        PsiNameValuePair[] psiNameValuePairs = pathVariable.getParameterList().getAttributes();
+        if (psiNameValuePairs.length > 0) {
+            for (PsiNameValuePair psiNameValuePair : psiNameValuePairs) {
+                String literalValue = psiNameValuePair.getLiteralValue();
+                if (StringUtils.isEmpty(literalValue)) {
+                    continue;
+                }
+                String name = psiNameValuePair.getName();
+                if (name == null || "value".equals(name) || "name".equals(name)) {
+                    return literalValue;
+                }
+            }
+        }
+        return fieldName;
+    }
+
+
+    private String getPathFromAnnotation(PsiAnnotation annotation) {
+        if (annotation == null) {
+            return "";
+        }
+        PsiNameValuePair[] psiNameValuePairs = annotation.getParameterList().getAttributes();
+        if (psiNameValuePairs.length == 1 && psiNameValuePairs[0].getName() == null) {
+            return appendSlash(psiNameValuePairs[0].getLiteralValue());
+        }
+        if (psiNameValuePairs.length >= 1) {
+            for (PsiNameValuePair psiNameValuePair : psiNameValuePairs) {
+                if (psiNameValuePair.getName().equals("value") || psiNameValuePair.getName().equals("path")) {
+                    return appendSlash(psiNameValuePair.getLiteralValue());
+                }
+            }
+        }
+        return "";
+    }
+
+    private String appendSlash(String path) {
+        if (StringUtils.isEmpty(path)) {
+            return "";
+        }
+        String p = path;
+        if (!path.startsWith(SLASH)) {
+            p = SLASH + path;
+        }
+        if(path.endsWith(SLASH)) {
+            p = p.substring(0,p.length()-1);
+        }
+        return p;
+    }
+
+    private String getDefaultCatName() {
+        String defaultCat = config.getState().defaultCat;
+        return StringUtils.isEmpty(defaultCat) ? "api_generator" : defaultCat;
+    }
+
+    private String getClassCatName(PsiDocComment classDesc) {
+        if (classDesc == null) {
+            return "";
+        }
+        return DesUtil.getDescription(classDesc).split(" ")[0];
+    }
+
+    private String getCatName(PsiDocComment classDesc) {
+        String defaultCatName = getDefaultCatName();
+        if (config.getState().autoCat) {
+            String classCatName = getClassCatName(classDesc);
+            return StringUtils.isEmpty(classCatName) ? defaultCatName : classCatName;
+        }
+        return defaultCatName;
+    }
+
+    private Set<String> listCatNames(List<SmartPsiElementPointer<PsiMethod>> pointers) {
+        Set<String> catNames = new LinkedHashSet<>();
+        for (SmartPsiElementPointer<PsiMethod> pointer : pointers) {
+            PsiMethod method = pointer.getElement();
+            if (method == null || method.getContainingClass() == null) {
+                continue;
+            }
+            catNames.add(getCatName(DesUtil.getDocComment(method.getContainingClass())));
+        }
+        return catNames;
+    }
+
+    private List<YApiQuery> listYApiQueries(List<FieldInfo> requestFields, RequestMethodEnum requestMethodEnum) {
+        List<YApiQuery> queries = new ArrayList<>();
+        for (FieldInfo fieldInfo : listQueryFields(requestFields, requestMethodEnum)) {
+            YApiQuery apiQuery = buildYApiQuery(fieldInfo);
+            if (TypeEnum.ARRAY.equals(fieldInfo.getParamType())) {
+                apiQuery.setExample("1,1,1");
+            }
+            queries.add(apiQuery);
+        }
+        return queries;
+    }
+
+    /**
+     * 查询参数，对象参数展开为其字段
+     */
+    private List<FieldInfo> listQueryFields(List<FieldInfo> requestFields, RequestMethodEnum requestMethodEnum) {
+        List<FieldInfo> queryFields = new ArrayList<>();
+        for (FieldInfo fieldInfo : requestFields) {
+            if (notQuery(fieldInfo.getAnnotationInfo(), requestMethodEnum)) {
+                continue;
+            }
+            if (TypeEnum.OBJECT.equals(fieldInfo.getParamType())) {
+                if (fieldInfo.getChildren() != null) {
+                    queryFields.addAll(fieldInfo.getChildren());
+                }
+            } else {
+                queryFields.add(fieldInfo);
+            }
+        }
+        return queryFields;
+    }
+
+    private boolean notQuery(AnnotationInfo annotationInfo, RequestMethodEnum requestMethodEnum) {
+        if (annotationInfo.getPathVariable() != null) {
+            return true;
+        }
+        return annotationInfo.isRequestBody() || !RequestMethodEnum.GET.equals(requestMethodEnum);
+    }
+
+    private YApiQuery buildYApiQuery(FieldInfo fieldInfo) {
+        YApiQuery query = new YApiQuery();
+        query.setName(fieldInfo.getName());
+        query.setDesc(generateDesc(fieldInfo));
+        Object value = fieldInfo.getExample();
+        if (value != null) {
+            query.setExample(value.toString());
+        }
+        query.setRequired(convertRequired(fieldInfo.isRequire()));
+        return query;
+    }
+
+    private String convertRequired(boolean required) {
+        return required ? "1" : "0";
+    }
+
+    private String generateDesc(FieldInfo fieldInfo) {
+        if (AssertUtils.isEmpty(fieldInfo.getRange()) || "N/A".equals(fieldInfo.getRange())) {
+            return fieldInfo.getDesc();
+        }
+        if (AssertUtils.isEmpty(fieldInfo.getDesc())) {
+            return "值域：" + fieldInfo.getRange();
+        }
+        return fieldInfo.getDesc() + "，值域：" + fieldInfo.getRange();
+    }
+
+    private List<YApiForm> listYApiForms(List<FieldInfo> requestFields) {
+        List<YApiForm> yApiForms = new ArrayList<>();
+        for (FieldInfo fieldInfo : listFormFields(requestFields)) {
+            YApiForm apiQuery = buildYApiForm(fieldInfo);
+            if (TypeEnum.ARRAY.equals(fieldInfo.getParamType())) {
+                apiQuery.setExample("1,1,1");
+            }
+            yApiForms.add(apiQuery);
+        }
+        return yApiForms;
+    }
+
+    /**
+     * 表单字段，对象参数展开为其字段
+     */
+    private List<FieldInfo> listFormFields(List<FieldInfo> requestFields) {
+        List<FieldInfo> formFields = new ArrayList<>();
+        for (FieldInfo fieldInfo : requestFields) {
+            if (fieldInfo.getAnnotationInfo().getPathVariable() != null) {
+                continue;
+            }
+            if (TypeEnum.OBJECT.equals(fieldInfo.getParamType())) {
+                if (fieldInfo.getChildren() != null) {
+                    formFields.addAll(fieldInfo.getChildren());
+                }
+            } else {
+                formFields.add(fieldInfo);
+            }
+        }
+        return formFields;
+    }
+
+    private YApiForm buildYApiForm(FieldInfo fieldInfo) {
+        YApiForm param = new YApiForm();
+        param.setName(fieldInfo.getName());
+        param.setDesc(fieldInfo.getDesc());
+        param.setExample(fieldInfo.getExample().toString());
+        param.setRequired(convertRequired(fieldInfo.isRequire()));
+        return param;
+    }
+
+    public static boolean hasMappingAnnotation(PsiMethod method) {
+        return AnnotationClassifier.classify(method).getMapping() != null;
+    }
+
+    public static boolean haveControllerAnnotation(PsiClass psiClass) {
+        return AnnotationClassifier.classify(psiClass).isController();
+    }
+
+    public String getDirPath() {
+        String dirPath = config.getState().dirPath;
+        if (StringUtils.isEmpty(dirPath)) {
+            return project.getBasePath() + "/target/api_docs";
+        }
+
+        if (dirPath.endsWith(SLASH)) {
+            return dirPath.substring(0, dirPath.lastIndexOf(SLASH));
+        }
+        return dirPath;
+    }
+
+    private ApiDoc buildApiDoc(Project project, PsiMember member) throws IOException {
+        if (member instanceof PsiMethod) {
+            return buildMethodDoc(project, (PsiMethod) member);
+        }
+        if (member instanceof PsiClass) {
+            return buildClassDoc((PsiClass) member);
+        }
+        return null;
+    }
+
+    private String getApiDocKey(String dirPath, PsiMember member) {
+        if (member instanceof PsiMethod) {
+            return "md:" + dirPath + ":" + ApiFingerprintStore.getMethodSignature((PsiMethod) member);
+        }
+        if (member instanceof PsiClass) {
+            return "md:" + dirPath + ":" + ((PsiClass) member).getQualifiedName();
+        }
+        return null;
+    }
+
+    private File getApiDocFile(String dirPath, ApiDoc apiDoc) {
+        return new File(dirPath + SLASH + apiDoc.getFileName() + ".md");
+    }
+
+    /**
+     * 文件已存在、内容有变化且配置为不直接覆盖时需要确认
+     */
+    private boolean needConfirmOverwrite(File file, ApiDoc apiDoc) {
+        return file.exists() && !config.getState().overwrite && !DocWriteQueue.isSameContent(file, apiDoc.getContent());
+    }
+
+    /**
+     * 一次确认是否覆盖全部已存在的文档，不允许弹框时不覆盖
+     */
+    private boolean confirmOverwrite(Collection<String> fileNames) {
+        if (!interactive) {
+            return false;
+        }
+        List<String> names = new ArrayList<>(fileNames);
+        String message = StringUtils.join(names.subList(0, Math.min(10, names.size())), "\n")
+                + (names.size() > 10 ? "\n... (" + names.size() + " files)" : "")
+                + "\nalready exist,do you want to overwrite them?";
+        Ref<Integer> choose = Ref.create();
+        ApplicationManager.getApplication().invokeAndWait(() -> choose.set(Messages.showOkCancelDialog(message, "Overwrite Warning!", "Yes", "No", Messages.getWarningIcon())), ModalityState.defaultModalityState());
+        return Messages.CANCEL != choose.get();
+    }
+
+    private ApiDoc buildClassDoc(PsiClass psiClass) throws IOException {
+        StringWriter md = new StringWriter();
+        List<FieldInfo> fieldInfos = listFieldInfos(psiClass);
+        long renderStart = System.nanoTime();
+        new MarkdownRenderer(getPrefix()).writeFields(md, "## 示例\n", "## 参数说明\n", fieldInfos);
+        MetricsService.current(psiClass.getProject()).record(MetricNames.RENDER_MARKDOWN, renderStart);
+        return new ApiDoc(psiClass.getName(), md.toString(), ApiFingerprintStore.collectDependencies(psiClass, fieldInfos));
+    }
+
+    public List<FieldInfo> listFieldInfos(PsiClass psiClass) {
+        List<FieldInfo> fieldInfos = new ArrayList<>();
+        Project project = psiClass.getProject();
+        PsiType classType = JavaPsiFacade.getElementFactory(project).createType(psiClass);
+        FieldBudget budget = FieldBudget.of(project);
+        for (FieldSchema fieldSchema : TypeSchemaCache.getInstance(project).listFieldSchemas(classType)) {
+            if (config.getState().excludeFieldNames.contains(fieldSchema.getName())) {
+                continue;
+            }
+            fieldInfos.add(new FieldInfo(project, fieldSchema.getName(), fieldSchema.getPsiType(), fieldSchema.getDesc(), fieldSchema.getAnnotations(), budget));
+        }
+        return fieldInfos;
+    }
+
+    private ApiDoc buildMethodDoc(Project project, PsiMethod selectedMethod) throws IOException {
+        MethodInfo methodInfo = new MethodInfo(selectedMethod);
+        String fileName = getFileName(methodInfo);
+        MavenCoordinateResolver coordinateResolver = MavenCoordinateResolver.getInstance(project);
+        MavenCoordinate coordinate = coordinateResolver.resolve(selectedMethod);
+        StringWriter md = new StringWriter();
+        md.write("## " + fileName + "\n");
+        md.write("## 功能介绍\n");
+        md.write(methodInfo.getDesc() + "\n");
+        if (coordinate != null) {
+            md.write("## Maven依赖\n");
+            md.write("```xml\n");
+            md.write("<dependency>\n");
+            md.write("\t<groupId>" + coordinate.getGroupId() + "</groupId>\n");
+            md.write("\t<artifactId>" + coordinate.getArtifactId() + "</artifactId>\n");
+            md.write("\t<version>" + coordinate.getVersion() + "</version>\n");
+            md.write("</dependency>\n");
+            md.write("```\n");
+        }
+        md.write("## 接口声明\n");
+        md.write("```java\n");
+        md.write("package " + methodInfo.getPackageName() + ";\n\n");
+        md.write("public interface " + methodInfo.getClassName() + " {\n\n");
+        md.write("\t" + methodInfo.getReturnStr() + " " + methodInfo.getMethodName() + methodInfo.getParamStr() + ";\n\n");
+        md.write("}\n");
+        md.write("```\n");
+        long renderStart = System.nanoTime();
+        MarkdownRenderer renderer = new MarkdownRenderer(getPrefix());
+        md.write("## 请求参数\n");
+        renderer.writeFields(md, "### 请求参数示例\n", "### 请求参数说明\n", methodInfo.getRequestFields());
+        md.write("\n## 返回结果\n");
+        renderer.writeField(md, "### 返回结果示例\n", "### 返回结果说明\n", methodInfo.getResponse());
+        MetricsService.current(project).record(MetricNames.RENDER_MARKDOWN, renderStart);
+        Map<String, Long> dependencies = ApiFingerprintStore.collectDependencies(selectedMethod, methodInfo);
+        ApiFingerprintStore.addDependency(dependencies, coordinateResolver.findPom(selectedMethod));
+        return new ApiDoc(fileName, md.toString(), dependencies);
+    }
+
+    private boolean mkDirectory(String dirPath) {
+        File dir = new File(dirPath);
+        if (!dir.exists()) {
+            boolean success = dir.mkdirs();
+            if (!success) {
+                NotificationUtil.errorNotify("invalid directory path!", project);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String getFileName(MethodInfo methodInfo) {
+        if (!config.getState().cnFileName) {
+            return methodInfo.getMethodName();
+        }
+        if (StringUtils.isEmpty(methodInfo.getDesc()) || !methodInfo.getDesc().contains(" ")) {
+            return methodInfo.getMethodName();
+        }
+        return methodInfo.getDesc().split(" ")[0];
+    }
+
+    private String getPrefix() {
+        String prefix = config.getState().prefix;
+        if (" ".equals(prefix)) {
+            return "&emsp";
+        }
+        return prefix;
+    }
+}
@@ -0,0 +1,61 @@
+package site.forgus.plugins.apigenerator;
+
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.SmartPsiElementPointer;
+import site.forgus.plugins.apigenerator.config.ApiGeneratorConfig;
+import site.forgus.plugins.apigenerator.openapi.OpenApiFormat;
+import site.forgus.plugins.apigenerator.util.NotificationUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 导出指定范围（项目、模块、包）内全部Controller接口的OpenAPI 3文档
+ */
+public class ExportOpenApiAction extends GenerateAllApiAction {
+
+    @Override
+    public void actionPerformed(AnActionEvent actionEvent) {
+        Project project = actionEvent.getProject();
+        if (project == null) {
+            return;
+        }
+        if (DumbService.isDumb(project)) {
+            NotificationUtil.warnNotify("Export OpenAPI is not available while indexing.", project);
+            return;
+        }
+        ChosenScope chosenScope = chooseScope(actionEvent, project);
+        if (chosenScope == null) {
+            return;
+        }
+        OpenApiFormat[] formats = OpenApiFormat.values();
+        String[] formatNames = new String[formats.length];
+        for (int i = 0; i < formats.length; i++) {
+            formatNames[i] = formats[i].name();
+        }
+        int formatIndex = Messages.showDialog(project, "Choose the OpenAPI document format:", "Export OpenAPI",
+                formatNames, 0, Messages.getQuestionIcon());
+        if (formatIndex < 0) {
+            return;
+        }
+        List<SmartPsiElementPointer<PsiMethod>> httpMethods = new ArrayList<>();
+        boolean finished = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> ReadAction.run(() -> httpMethods.addAll(new ApiCollector(project, ServiceManager.getService(project, ApiGeneratorConfig.class)).collectHttpMethods(chosenScope.getScope()))),
+                "Searching Apis", true, project);
+        if (!finished) {
+            return;
+        }
+        if (httpMethods.isEmpty()) {
+            NotificationUtil.infoNotify("No REST api found in the chosen scope.", project);
+            return;
+        }
+        createGenerator(project).exportOpenApi(httpMethods, formats[formatIndex]);
+    }
+}
@@ -0,0 +1,137 @@
+package site.forgus.plugins.apigenerator;
+
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.actionSystem.LangDataKeys;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.GlobalSearchScopesCore;
+import com.intellij.psi.search.PackageScope;
+import org.apache.commons.lang.StringUtils;
+import site.forgus.plugins.apigenerator.config.ApiGeneratorConfig;
+import site.forgus.plugins.apigenerator.util.NotificationUtil;
+
+import java.util.*;
+
+/**
+ * 批量生成指定范围（项目、模块、包）内全部Controller与Dubbo接口的文档
+ */
+public class GenerateAllApiAction extends ApiGenerateAction {
+
+    @Override
+    public void actionPerformed(AnActionEvent actionEvent) {
+        Project project = actionEvent.getProject();
+        if (project == null) {
+            return;
+        }
+        if (DumbService.isDumb(project)) {
+            NotificationUtil.warnNotify("Generate all api is not available while indexing.", project);
+            return;
+        }
+        ApiGenerator generator = createGenerator(project);
+        ChosenScope chosenScope = chooseScope(actionEvent, project);
+        if (chosenScope == null) {
+            return;
+        }
+        GlobalSearchScope scope = chosenScope.getScope();
+        List<SmartPsiElementPointer<PsiMethod>> httpMethods = new ArrayList<>();
+        List<SmartPsiElementPointer<PsiMember>> interfaceMethods = new ArrayList<>();
+        boolean finished = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> ReadAction.run(() -> collectApiMethods(project, scope, httpMethods, interfaceMethods)),
+                "Searching Apis", true, project);
+        if (!finished) {
+            return;
+        }
+        if (httpMethods.isEmpty() && interfaceMethods.isEmpty()) {
+            NotificationUtil.infoNotify("No api found in the chosen scope.", project);
+            return;
+        }
+        if (!httpMethods.isEmpty() && generator.inputYApiSetting()) {
+            generator.uploadToYApi(httpMethods, chosenScope.isWholeProject());
+        }
+        if (!interfaceMethods.isEmpty()) {
+            generator.generateMarkdowns(interfaceMethods);
+        }
+    }
+
+    @Override
+    public void update(AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    protected ChosenScope chooseScope(AnActionEvent actionEvent, Project project) {
+        List<String> scopeNames = new ArrayList<>();
+        List<GlobalSearchScope> scopes = new ArrayList<>();
+        GlobalSearchScope projectScope = GlobalSearchScopesCore.projectProductionScope(project);
+        scopeNames.add("Project");
+        scopes.add(projectScope);
+        Module module = actionEvent.getData(LangDataKeys.MODULE);
+        if (module != null) {
+            scopeNames.add("Module '" + module.getName() + "'");
+            scopes.add(module.getModuleScope(false));
+        }
+        PsiPackage psiPackage = getSelectedPackage(actionEvent);
+        if (psiPackage != null && StringUtils.isNotEmpty(psiPackage.getQualifiedName())) {
+            scopeNames.add("Package '" + psiPackage.getQualifiedName() + "'");
+            scopes.add(PackageScope.packageScope(psiPackage, true).intersectWith(projectScope));
+        }
+        if (scopes.size() == 1) {
+            return new ChosenScope(projectScope, true);
+        }
+        int index = Messages.showDialog(project, "Choose the scope to generate api docs for:", "Generate All Api",
+                scopeNames.toArray(new String[0]), scopeNames.size() - 1, Messages.getQuestionIcon());
+        return index < 0 ? null : new ChosenScope(scopes.get(index), index == 0);
+    }
+
+    private PsiPackage getSelectedPackage(AnActionEvent actionEvent) {
+        PsiElement element = actionEvent.getData(CommonDataKeys.PSI_ELEMENT);
+        if (element == null) {
+            element = actionEvent.getData(CommonDataKeys.PSI_FILE);
+        }
+        if (element instanceof PsiPackage) {
+            return (PsiPackage) element;
+        }
+        PsiDirectory directory = null;
+        if (element instanceof PsiDirectory) {
+            directory = (PsiDirectory) element;
+        } else if (element != null && element.getContainingFile() != null) {
+            directory = element.getContainingFile().getContainingDirectory();
+        }
+        return directory == null ? null : JavaDirectoryService.getInstance().getPackage(directory);
+    }
+
+    private void collectApiMethods(Project project, GlobalSearchScope scope, List<SmartPsiElementPointer<PsiMethod>> httpMethods, List<SmartPsiElementPointer<PsiMember>> interfaceMethods) {
+        ApiCollector collector = new ApiCollector(project, ServiceManager.getService(project, ApiGeneratorConfig.class));
+        httpMethods.addAll(collector.collectHttpMethods(scope));
+        interfaceMethods.addAll(collector.collectInterfaceMethods(scope));
+    }
+
+    /**
+     * 选择的范围，只有整个项目才能判断YApi上哪些接口已从代码中删除
+     */
+    protected static class ChosenScope {
+
+        private final GlobalSearchScope scope;
+        private final boolean wholeProject;
+
+        ChosenScope(GlobalSearchScope scope, boolean wholeProject) {
+            this.scope = scope;
+            this.wholeProject = wholeProject;
+        }
+
+        public GlobalSearchScope getScope() {
+            return scope;
+        }
+
+        public boolean isWholeProject() {
+            return wholeProject;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package site.forgus.plugins.apigenerator.cli;
+
+import com.google.gson.GsonBuilder;
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.util.ProgressIndicatorBase;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Ref;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * 命令行入口，用于CI中生成文档或上传YApi：
+ * idea api-generator &lt;project-path&gt; [options]，失败时以非0退出，并输出JSON格式的耗时报告
+ */
+public class ApiGeneratorStarter implements ApplicationStarter {
+
+    private static final int EXIT_OK = 0;
+    private static final int EXIT_FAILED = 1;
+    private static final int EXIT_USAGE = 2;
+
+    @Override
+    public String getCommandName() {
+        return "api-generator";
+    }
+
+    @Override
+    public void premain(String[] args) {
+    }
+
+    public boolean isHeadless() {
+        return true;
+    }
+
+    @Override
+    public void main(String[] args) {
+        CliOptions options;
+        try {
+            //第一个参数是命令名
+            options = CliOptions.parse(Arrays.copyOfRange(args, 1, args.length));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(CliOptions.USAGE);
+            System.exit(EXIT_USAGE);
+            return;
+        }
+        //打开项目需要事件线程，生成在后台线程中执行
+        Future<?> future = ApplicationManager.getApplication().executeOnPooledThread(() -> runAndExit(options));
+        if (!ApplicationManager.getApplication().isDispatchThread()) {
+            try {
+                future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+                System.exit(EXIT_FAILED);
+            }
+        }
+    }
+
+    /**
+     * 在事件线程中启动时没有线程等待结果，run抛出异常也必须退出进程
+     */
+    private void runAndExit(CliOptions options) {
+        int exitCode;
+        try {
+            exitCode = run(options);
+        } catch (Throwable e) {
+            e.printStackTrace();
+            exitCode = EXIT_FAILED;
+        }
+        System.exit(exitCode);
+    }
+
+    private int run(CliOptions options) {
+        long start = System.currentTimeMillis();
+        CliReport report = new CliReport();
+        report.setProject(options.getProjectPath());
+        for (CliMode mode : options.getModes()) {
+            report.getModes().add(mode.getValue());
+        }
+        Project project = openProject(options.getProjectPath());
+        if (project == null) {
+            report.getFailures().add("Can not open project " + options.getProjectPath());
+            return finish(options, report, start);
+        }
+        try {
+            DumbService.getInstance(project).waitForSmartMode();
+            HeadlessGenerator generator = new HeadlessGenerator(project, options);
+            ProgressIndicator indicator = new ProgressIndicatorBase();
+            try {
+                ProgressManager.getInstance().runProcess(() -> generator.generate(options, indicator), indicator);
+            } catch (RuntimeException e) {
+                report.getFailures().add(e.toString());
+            }
+            report.getFailures().addAll(generator.getFailures());
+            report.getRuns().addAll(generator.getRuns());
+            report.getOrphans().addAll(generator.getOrphans());
+        } finally {
+            ApplicationManager.getApplication().invokeAndWait(() -> ProjectUtil.closeAndDispose(project));
+        }
+        return finish(options, report, start);
+    }
+
+    private Project openProject(String projectPath) {
+        String path = new File(projectPath).getAbsolutePath();
+        Ref<Project> project = Ref.create();
+        ApplicationManager.getApplication().invokeAndWait(() -> project.set(ProjectUtil.openOrImport(path, null, false)));
+        return project.get();
+    }
+
+    private int finish(CliOptions options, CliReport report, long start) {
+        report.setSuccess(report.getFailures().isEmpty());
+        report.setDurationMillis(System.currentTimeMillis() - start);
+        for (String failure : report.getFailures()) {
+            System.err.println(failure);
+        }
+        String json = new GsonBuilder().setPrettyPrinting().create().toJson(report);
+        if (options.getReport() == null) {
+            System.out.println(json);
+        } else {
+            try {
+                Files.write(new File(options.getReport()).toPath(), json.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                System.err.println("Can not write report " + options.getReport() + ": " + e.getMessage());
+                return EXIT_FAILED;
+            }
+        }
+        return report.isSuccess() ? EXIT_OK : EXIT_FAILED;
+    }
+}
@@ -0,0 +1,29 @@
+package site.forgus.plugins.apigenerator.cli;
+
+/**
+ * 命令行执行的生成方式
+ */
+public enum CliMode {
+    MARKDOWN("markdown"),
+    OPENAPI_JSON("openapi-json"),
+    OPENAPI_YAML("openapi-yaml"),
+    YAPI("yapi");
+    private String value;
+
+    public String getValue() {
+        return value;
+    }
+
+    CliMode(String value) {
+        this.value = value;
+    }
+
+    public static CliMode of(String value) {
+        for (CliMode mode : values()) {
+            if (mode.value.equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown mode: " + value);
+    }
+}
@@ -0,0 +1,119 @@
+package site.forgus.plugins.apigenerator.cli;
+
+import lombok.Data;
+import org.apache.commons.lang.StringUtils;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 命令行参数，选项支持--name=value与--name value两种写法
+ */
+@Data
+public class CliOptions {
+
+    public static final String USAGE = "Usage: api-generator <project-path> [options]\n" +
+            "  --mode=<modes>          markdown, openapi-json, openapi-yaml, yapi, comma separated (default: markdown)\n" +
+            "  --scope=<scope>         project, module:<name> or package:<qualified name> (default: project)\n" +
+            "  --output=<dir>          directory of markdown docs and OpenAPI document\n" +
+            "  --server-url=<url>      YApi server url\n" +
+            "  --token=<token>         YApi project token\n" +
+            "  --concurrency=<n>       concurrent YApi requests\n" +
+            "  --full                  regenerate unchanged apis\n" +
+            "  --sync                  diff against the YApi interface list, upload new or changed apis and report orphans\n" +
+            "  --remove-orphans        with --sync and project scope, remove YApi apis deleted from code\n" +
+            "  --report=<file>         write the JSON timing report to file instead of stdout";
+
+    private String projectPath;
+    private Set<CliMode> modes = new LinkedHashSet<>();
+    private String scope = "project";
+    private String output;
+    private String serverUrl;
+    private String token;
+    private Integer concurrency;
+    private boolean full;
+    private boolean sync;
+    private boolean removeOrphans;
+    private String report;
+
+    /**
+     * @param args 命令行参数，不含命令名
+     * @throws IllegalArgumentException 参数不合法
+     */
+    public static CliOptions parse(String[] args) {
+        CliOptions options = new CliOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                if (options.projectPath != null) {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                }
+                options.projectPath = arg;
+                continue;
+            }
+            String name = arg.substring(2);
+            String value = null;
+            int eq = name.indexOf('=');
+            if (eq >= 0) {
+                value = name.substring(eq + 1);
+                name = name.substring(0, eq);
+            }
+            if ("full".equals(name)) {
+                options.full = true;
+                continue;
+            }
+            if ("sync".equals(name)) {
+                options.sync = true;
+                continue;
+            }
+            if ("remove-orphans".equals(name)) {
+                options.removeOrphans = true;
+                continue;
+            }
+            if (value == null) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value of --" + name);
+                }
+                value = args[++i];
+            }
+            switch (name) {
+                case "mode":
+                    for (String mode : StringUtils.split(value, ',')) {
+                        options.modes.add(CliMode.of(mode.trim()));
+                    }
+                    break;
+                case "scope":
+                    options.scope = value;
+                    break;
+                case "output":
+                    options.output = value;
+                    break;
+                case "server-url":
+                    options.serverUrl = value;
+                    break;
+                case "token":
+                    options.token = value;
+                    break;
+                case "concurrency":
+                    try {
+                        options.concurrency = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid concurrency: " + value);
+                    }
+                    break;
+                case "report":
+                    options.report = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        if (StringUtils.isEmpty(options.projectPath)) {
+            throw new IllegalArgumentException("Project path is required");
+        }
+        if (options.modes.isEmpty()) {
+            options.modes.add(CliMode.MARKDOWN);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,28 @@
+package site.forgus.plugins.apigenerator.cli;
+
+import lombok.Data;
+import site.forgus.plugins.apigenerator.metrics.MetricsSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 命令行执行结果，以JSON输出供CI解析
+ */
+@Data
+public class CliReport {
+
+    private String project;
+    private List<String> modes = new ArrayList<>();
+    private boolean success;
+    private long durationMillis;
+    private List<String> failures = new ArrayList<>();
+    /**
+     * YApi上存在但代码中已删除的接口
+     */
+    private List<String> orphans = new ArrayList<>();
+    /**
+     * 每个生成方式一次运行的指标
+     */
+    private List<MetricsSnapshot> runs = new ArrayList<>();
+}
@@ -0,0 +1,190 @@
+package site.forgus.plugins.apigenerator.cli;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiMember;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiPackage;
+import com.intellij.psi.SmartPsiElementPointer;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.GlobalSearchScopesCore;
+import com.intellij.psi.search.PackageScope;
+import com.intellij.util.xmlb.XmlSerializerUtil;
+import org.apache.commons.lang.StringUtils;
+import site.forgus.plugins.apigenerator.ApiCollector;
+import site.forgus.plugins.apigenerator.ApiGenerator;
+import site.forgus.plugins.apigenerator.config.ApiGeneratorConfig;
+import site.forgus.plugins.apigenerator.metrics.MetricsService;
+import site.forgus.plugins.apigenerator.metrics.MetricsSnapshot;
+import site.forgus.plugins.apigenerator.openapi.OpenApiFormat;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 无界面批量生成，在当前线程中直接执行插件的后台任务，收集失败信息与每次运行的指标。
+ * 命令行选项只覆盖本次运行使用的配置副本，不修改项目保存的配置
+ */
+public class HeadlessGenerator {
+
+    private final Project project;
+    private final ApiGeneratorConfig config;
+    private final ApiGenerator generator;
+    private final ApiCollector collector;
+    private final List<String> failures = new ArrayList<>();
+    private final List<MetricsSnapshot> runs = new ArrayList<>();
+    private final List<String> orphans = new ArrayList<>();
+
+    public HeadlessGenerator(Project project, CliOptions options) {
+        this.project = project;
+        this.config = new ApiGeneratorConfig();
+        XmlSerializerUtil.copyBean(ServiceManager.getService(project, ApiGeneratorConfig.class).getState(), config);
+        //命令行没有确认对话框
+        config.overwrite = true;
+        if (options.isFull()) {
+            config.incremental = false;
+        }
+        if (options.getOutput() != null) {
+            config.dirPath = options.getOutput();
+        }
+        if (options.getServerUrl() != null) {
+            config.yApiServerUrl = options.getServerUrl();
+            config.projectId = "";
+        }
+        if (options.getToken() != null) {
+            config.projectToken = options.getToken();
+            config.projectId = "";
+        }
+        if (options.isSync()) {
+            config.diffSync = true;
+        }
+        if (options.isRemoveOrphans()) {
+            config.removeOrphans = true;
+        }
+        if (options.getConcurrency() != null) {
+            config.uploadConcurrency = Math.max(1, options.getConcurrency());
+        }
+        this.generator = new ApiGenerator(project, config, false);
+        this.collector = new ApiCollector(project, config);
+    }
+
+    public void generate(CliOptions options, ProgressIndicator indicator) {
+        GlobalSearchScope scope = ReadAction.compute(() -> resolveScope(options.getScope()));
+        if (scope == null) {
+            failures.add("Unknown scope: " + options.getScope());
+            return;
+        }
+        List<SmartPsiElementPointer<PsiMethod>> httpMethods = null;
+        for (CliMode mode : options.getModes()) {
+            indicator.checkCanceled();
+            if (mode == CliMode.MARKDOWN) {
+                generateMarkdowns(scope, indicator);
+                continue;
+            }
+            if (httpMethods == null) {
+                httpMethods = ReadAction.compute(() -> collector.collectHttpMethods(scope));
+            }
+            switch (mode) {
+                case OPENAPI_JSON:
+                    exportOpenApi(httpMethods, OpenApiFormat.JSON, indicator);
+                    break;
+                case OPENAPI_YAML:
+                    exportOpenApi(httpMethods, OpenApiFormat.YAML, indicator);
+                    break;
+                case YAPI:
+                    upload(httpMethods, "project".equals(options.getScope()), indicator);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    public List<MetricsSnapshot> getRuns() {
+        return runs;
+    }
+
+    public List<String> getOrphans() {
+        return orphans;
+    }
+
+    private void generateMarkdowns(GlobalSearchScope scope, ProgressIndicator indicator) {
+        List<SmartPsiElementPointer<PsiMember>> interfaceMethods = ReadAction.compute(() -> collector.collectInterfaceMethods(scope));
+        String dirPath = generator.getDirPath();
+        if (!mkdirs(dirPath)) {
+            return;
+        }
+        ApiGenerator.MarkdownTask task = generator.createMarkdownTask(interfaceMethods, dirPath);
+        task.run(indicator);
+        collect(CliMode.MARKDOWN, task.getFailMessages());
+    }
+
+    private void exportOpenApi(List<SmartPsiElementPointer<PsiMethod>> httpMethods, OpenApiFormat format, ProgressIndicator indicator) {
+        String dirPath = generator.getDirPath();
+        if (!mkdirs(dirPath)) {
+            return;
+        }
+        ApiGenerator.OpenApiExportTask task = generator.createOpenApiExportTask(httpMethods, generator.getOpenApiFile(dirPath, format), format);
+        task.run(indicator);
+        collect(format == OpenApiFormat.JSON ? CliMode.OPENAPI_JSON : CliMode.OPENAPI_YAML, task.getFailMessages());
+    }
+
+    private void upload(List<SmartPsiElementPointer<PsiMethod>> httpMethods, boolean wholeProject, ProgressIndicator indicator) {
+        if (StringUtils.isEmpty(config.yApiServerUrl) || StringUtils.isEmpty(config.projectToken)) {
+            failures.add(CliMode.YAPI.getValue() + ": YApi server url and project token are required.");
+            return;
+        }
+        ApiGenerator.YApiUploadTask task = generator.createYApiUploadTask(httpMethods, wholeProject);
+        task.run(indicator);
+        orphans.addAll(task.getOrphans());
+        collect(CliMode.YAPI, task.getFailMessages());
+    }
+
+    private void collect(CliMode mode, List<String> failMessages) {
+        for (String failMessage : failMessages) {
+            failures.add(mode.getValue() + ": " + failMessage);
+        }
+        MetricsSnapshot snapshot = MetricsService.getInstance(project).getLastSnapshot();
+        if (snapshot != null) {
+            runs.add(snapshot);
+        }
+    }
+
+    private boolean mkdirs(String dirPath) {
+        File dir = new File(dirPath);
+        if (dir.isDirectory() || dir.mkdirs()) {
+            return true;
+        }
+        failures.add("Can not create directory " + dirPath);
+        return false;
+    }
+
+    /**
+     * 解析project、module:名称、package:包名形式的范围
+     */
+    private GlobalSearchScope resolveScope(String scope) {
+        GlobalSearchScope projectScope = GlobalSearchScopesCore.projectProductionScope(project);
+        if ("project".equals(scope)) {
+            return projectScope;
+        }
+        if (scope.startsWith("module:")) {
+            Module module = ModuleManager.getInstance(project).findModuleByName(scope.substring("module:".length()));
+            return module == null ? null : module.getModuleScope(false);
+        }
+        if (scope.startsWith("package:")) {
+            PsiPackage psiPackage = JavaPsiFacade.getInstance(project).findPackage(scope.substring("package:".length()));
+            return psiPackage == null ? null : PackageScope.packageScope(psiPackage, true).intersectWith(projectScope);
+        }
+        return null;
+    }
+}
@@ -6,6 +6,7 @@ import com.intellij.openapi.startup.StartupActivity;
 import com.intellij.util.xmlb.XmlSerializerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import site.forgus.plugins.apigenerator.yapi.enums.YApiMergeModeEnum;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -16,16 +17,33 @@ public class ApiGeneratorConfig implements PersistentStateComponent<ApiGenerator
 
     public Set<String> excludeFieldNames = new HashSet<>();
     public String excludeFields = "serialVersionUID";
+    public String customLiteralTypes = "";
     public String dirPath = "";
     public String prefix = "└";
     public Boolean cnFileName = false;
     public Boolean overwrite = true;
+    public Boolean incremental = true;
+    public Integer maxFieldDepth = 10;
+    public Integer maxFieldCount = 2000;
+    /**
+     * 标注在接口或其实现类上的RPC服务注解，批量生成时只收集这些接口，为空时收集全部顶层接口
+     */
+    public String apiInterfaceAnnotations = "org.apache.dubbo.config.annotation.DubboService,org.apache.dubbo.config.annotation.Service,com.alibaba.dubbo.config.annotation.Service";
 
     public String yApiServerUrl = "";
     public String projectToken = "";
     public String projectId = "";
     public Boolean autoCat = false;
     public String defaultCat = "api_generator";
+    public Integer maxConnectionsPerRoute = 8;
+    public Integer connectTimeout = 5000;
+    public Integer readTimeout = 30000;
+    public Integer uploadConcurrency = 4;
+    public Boolean bulkImport = false;
+    public String importMergeMode = YApiMergeModeEnum.MERGE.getValue();
+    public Integer importChunkSize = 200;
+    public Boolean diffSync = false;
+    public Boolean removeOrphans = false;
 
     @Nullable
     @Override
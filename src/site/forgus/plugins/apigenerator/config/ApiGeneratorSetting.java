@@ -3,11 +3,17 @@ package site.forgus.plugins.apigenerator.config;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.options.Configurable;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.ComboBox;
 import com.intellij.ui.components.*;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.math.NumberUtils;
 import org.jetbrains.annotations.Nls;
 import org.jetbrains.annotations.Nullable;
+import site.forgus.plugins.apigenerator.normal.FieldBudget;
 import site.forgus.plugins.apigenerator.util.AssertUtils;
+import site.forgus.plugins.apigenerator.util.HttpClientService;
+import site.forgus.plugins.apigenerator.yapi.enums.YApiMergeModeEnum;
+import site.forgus.plugins.apigenerator.yapi.model.YApiProject;
 import site.forgus.plugins.apigenerator.yapi.sdk.YApiSdk;
 
 import javax.swing.*;
@@ -16,6 +22,7 @@ import java.io.IOException;
 
 public class ApiGeneratorSetting implements Configurable {
 
+    private Project project;
     private ApiGeneratorConfig oldState;
 
 
@@ -23,6 +30,10 @@ public class ApiGeneratorSetting implements Configurable {
     JBTextField prefixTextField;
     JBCheckBox cnFileNameCheckBox;
     JBCheckBox overwriteCheckBox;
+    JBCheckBox incrementalCheckBox;
+    JBTextField maxFieldDepthTextField;
+    JBTextField maxFieldCountTextField;
+    JBTextField apiInterfaceAnnotationsTextField;
 
     JBTextField yApiUrlTextField;
     JBTextField tokenTextField;
@@ -30,8 +41,19 @@ public class ApiGeneratorSetting implements Configurable {
     JBTextField defaultCatTextField;
     JBCheckBox autoCatCheckBox;
     JBTextField excludeFields;
+    JBTextField customLiteralTypesTextField;
+    JBTextField maxConnectionsTextField;
+    JBTextField connectTimeoutTextField;
+    JBTextField readTimeoutTextField;
+    JBTextField uploadConcurrencyTextField;
+    JBCheckBox bulkImportCheckBox;
+    ComboBox<String> importMergeModeComboBox;
+    JBTextField importChunkSizeTextField;
+    JBCheckBox diffSyncCheckBox;
+    JBCheckBox removeOrphansCheckBox;
 
     public ApiGeneratorSetting(Project project) {
+        this.project = project;
         oldState = ServiceManager.getService(project,ApiGeneratorConfig.class);
     }
 
@@ -54,6 +76,11 @@ public class ApiGeneratorSetting implements Configurable {
         layout.setConstraints(excludeFields, getValueConstraints());
         normalPanel.add(excludeFields);
 
+        normalPanel.add(buildLabel(layout, "Literal Types:"));
+        customLiteralTypesTextField = buildTextField(layout, oldState.customLiteralTypes);
+        customLiteralTypesTextField.getEmptyText().setText("com.example.Money=0.00,com.example.Code");
+        normalPanel.add(customLiteralTypesTextField);
+
         normalPanel.add(buildLabel(layout, "Save Directory:"));
         dirPathTextField = buildTextField(layout, oldState.dirPath);
         normalPanel.add(dirPathTextField);
@@ -62,12 +89,28 @@ public class ApiGeneratorSetting implements Configurable {
         prefixTextField = buildTextField(layout, oldState.prefix);
         normalPanel.add(prefixTextField);
 
+        normalPanel.add(buildLabel(layout, "Max field depth:"));
+        maxFieldDepthTextField = buildTextField(layout, oldState.maxFieldDepth.toString());
+        normalPanel.add(maxFieldDepthTextField);
+
+        normalPanel.add(buildLabel(layout, "Max fields per api:"));
+        maxFieldCountTextField = buildTextField(layout, oldState.maxFieldCount.toString());
+        normalPanel.add(maxFieldCountTextField);
+
+        normalPanel.add(buildLabel(layout, "Service annotations:"));
+        apiInterfaceAnnotationsTextField = buildTextField(layout, oldState.apiInterfaceAnnotations);
+        apiInterfaceAnnotationsTextField.getEmptyText().setText("Empty to include all interfaces");
+        normalPanel.add(apiInterfaceAnnotationsTextField);
+
         overwriteCheckBox = buildJBCheckBox(layout, "Overwrite exists docs", oldState.overwrite);
         normalPanel.add(overwriteCheckBox);
 
         cnFileNameCheckBox = buildJBCheckBox(layout, "Extract filename from doc comments", oldState.cnFileName);
         normalPanel.add(cnFileNameCheckBox);
 
+        incrementalCheckBox = buildJBCheckBox(layout, "Skip unchanged apis", oldState.incremental);
+        normalPanel.add(incrementalCheckBox);
+
 
         jbTabbedPane.addTab("Api Setting", normalPanel);
 
@@ -95,6 +138,44 @@ public class ApiGeneratorSetting implements Configurable {
         autoCatCheckBox = buildJBCheckBox(layout, "Classify API automatically", oldState.autoCat);
         yApiPanel.add(autoCatCheckBox);
 
+        yApiPanel.add(buildLabel(layout, "Max connections per route:"));
+        maxConnectionsTextField = buildTextField(layout, oldState.maxConnectionsPerRoute.toString());
+        yApiPanel.add(maxConnectionsTextField);
+
+        yApiPanel.add(buildLabel(layout, "Connect timeout(ms):"));
+        connectTimeoutTextField = buildTextField(layout, oldState.connectTimeout.toString());
+        yApiPanel.add(connectTimeoutTextField);
+
+        yApiPanel.add(buildLabel(layout, "Read timeout(ms):"));
+        readTimeoutTextField = buildTextField(layout, oldState.readTimeout.toString());
+        yApiPanel.add(readTimeoutTextField);
+
+        yApiPanel.add(buildLabel(layout, "Upload concurrency:"));
+        uploadConcurrencyTextField = buildTextField(layout, oldState.uploadConcurrency.toString());
+        yApiPanel.add(uploadConcurrencyTextField);
+
+        bulkImportCheckBox = buildJBCheckBox(layout, "Publish through YApi import api", oldState.bulkImport);
+        yApiPanel.add(bulkImportCheckBox);
+
+        yApiPanel.add(buildLabel(layout, "Import merge mode:"));
+        importMergeModeComboBox = new ComboBox<>();
+        for (YApiMergeModeEnum mergeMode : YApiMergeModeEnum.values()) {
+            importMergeModeComboBox.addItem(mergeMode.getValue());
+        }
+        importMergeModeComboBox.setSelectedItem(oldState.importMergeMode);
+        layout.setConstraints(importMergeModeComboBox, getValueConstraints());
+        yApiPanel.add(importMergeModeComboBox);
+
+        yApiPanel.add(buildLabel(layout, "Apis per import:"));
+        importChunkSizeTextField = buildTextField(layout, oldState.importChunkSize.toString());
+        yApiPanel.add(importChunkSizeTextField);
+
+        diffSyncCheckBox = buildJBCheckBox(layout, "Diff against YApi interface list before uploading", oldState.diffSync);
+        yApiPanel.add(diffSyncCheckBox);
+
+        removeOrphansCheckBox = buildJBCheckBox(layout, "Remove YApi apis deleted from code (whole project only)", oldState.removeOrphans);
+        yApiPanel.add(removeOrphansCheckBox);
+
         jbTabbedPane.addTab("YApi Setting", yApiPanel);
         return jbTabbedPane;
     }
@@ -138,13 +219,27 @@ public class ApiGeneratorSetting implements Configurable {
         return !oldState.prefix.equals(prefixTextField.getText()) ||
                 oldState.cnFileName != cnFileNameCheckBox.isSelected() ||
                 oldState.overwrite != overwriteCheckBox.isSelected() ||
+                oldState.incremental != incrementalCheckBox.isSelected() ||
                 !oldState.yApiServerUrl.equals(yApiUrlTextField.getText()) ||
                 !oldState.projectToken.equals(tokenTextField.getText()) ||
                 !oldState.projectId.equals(projectIdLabel.getText()) ||
                 !oldState.defaultCat.equals(defaultCatTextField.getText()) ||
                 oldState.autoCat != autoCatCheckBox.isSelected() ||
                 !oldState.dirPath.equals(dirPathTextField.getText()) ||
-                !oldState.excludeFields.equals(excludeFields.getText());
+                !oldState.excludeFields.equals(excludeFields.getText()) ||
+                !oldState.customLiteralTypes.equals(customLiteralTypesTextField.getText()) ||
+                !oldState.maxFieldDepth.toString().equals(maxFieldDepthTextField.getText()) ||
+                !oldState.maxFieldCount.toString().equals(maxFieldCountTextField.getText()) ||
+                !oldState.apiInterfaceAnnotations.equals(apiInterfaceAnnotationsTextField.getText()) ||
+                !oldState.maxConnectionsPerRoute.toString().equals(maxConnectionsTextField.getText()) ||
+                !oldState.connectTimeout.toString().equals(connectTimeoutTextField.getText()) ||
+                !oldState.readTimeout.toString().equals(readTimeoutTextField.getText()) ||
+                !oldState.uploadConcurrency.toString().equals(uploadConcurrencyTextField.getText()) ||
+                oldState.bulkImport != bulkImportCheckBox.isSelected() ||
+                !oldState.importMergeMode.equals(importMergeModeComboBox.getSelectedItem()) ||
+                !oldState.importChunkSize.toString().equals(importChunkSizeTextField.getText()) ||
+                oldState.diffSync != diffSyncCheckBox.isSelected() ||
+                oldState.removeOrphans != removeOrphansCheckBox.isSelected();
     }
 
     @Override
@@ -156,15 +251,38 @@ public class ApiGeneratorSetting implements Configurable {
                 oldState.excludeFieldNames.add(str);
             }
         }
+        oldState.customLiteralTypes = customLiteralTypesTextField.getText();
         oldState.dirPath = dirPathTextField.getText();
         oldState.prefix = prefixTextField.getText();
         oldState.cnFileName = cnFileNameCheckBox.isSelected();
         oldState.overwrite = overwriteCheckBox.isSelected();
+        oldState.incremental = incrementalCheckBox.isSelected();
+        oldState.maxFieldDepth = FieldBudget.clampDepth(NumberUtils.toInt(maxFieldDepthTextField.getText(), oldState.maxFieldDepth));
+        oldState.maxFieldCount = FieldBudget.clampCount(NumberUtils.toInt(maxFieldCountTextField.getText(), oldState.maxFieldCount));
+        oldState.apiInterfaceAnnotations = apiInterfaceAnnotationsTextField.getText();
         oldState.yApiServerUrl = yApiUrlTextField.getText();
         oldState.projectToken = tokenTextField.getText();
+        oldState.uploadConcurrency = Math.max(1, NumberUtils.toInt(uploadConcurrencyTextField.getText(), oldState.uploadConcurrency));
+        oldState.bulkImport = bulkImportCheckBox.isSelected();
+        oldState.importMergeMode = (String) importMergeModeComboBox.getSelectedItem();
+        oldState.importChunkSize = Math.max(1, NumberUtils.toInt(importChunkSizeTextField.getText(), oldState.importChunkSize));
+        oldState.diffSync = diffSyncCheckBox.isSelected();
+        oldState.removeOrphans = removeOrphansCheckBox.isSelected();
+        int maxConnectionsPerRoute = NumberUtils.toInt(maxConnectionsTextField.getText(), oldState.maxConnectionsPerRoute);
+        int connectTimeout = NumberUtils.toInt(connectTimeoutTextField.getText(), oldState.connectTimeout);
+        int readTimeout = NumberUtils.toInt(readTimeoutTextField.getText(), oldState.readTimeout);
+        if (maxConnectionsPerRoute != oldState.maxConnectionsPerRoute || connectTimeout != oldState.connectTimeout || readTimeout != oldState.readTimeout) {
+            oldState.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            oldState.connectTimeout = connectTimeout;
+            oldState.readTimeout = readTimeout;
+            HttpClientService.getInstance(project).reset();
+        }
         if(AssertUtils.isNotEmpty(yApiUrlTextField.getText()) && AssertUtils.isNotEmpty(tokenTextField.getText())) {
             try {
-                oldState.projectId = YApiSdk.getProjectInfo(yApiUrlTextField.getText(), tokenTextField.getText()).get_id().toString();
+                YApiProject projectInfo = YApiSdk.getProjectInfo(project, yApiUrlTextField.getText(), tokenTextField.getText());
+                if (projectInfo.get_id() != null) {
+                    oldState.projectId = projectInfo.get_id().toString();
+                }
             } catch (IOException e) {
                 e.printStackTrace();
             }
@@ -2,14 +2,16 @@ package site.forgus.plugins.apigenerator.constant;
 
 public interface WebAnnotation {
 
-    String Controller = "Controller";
-    String RequestMapping = "RequestMapping";
-    String RequestParam = "RequestParam";
-    String GetMapping = "GetMapping";
-    String PutMapping = "PutMapping";
-    String DeleteMapping = "DeleteMapping";
-    String PatchMapping = "PatchMapping";
-    String RequestBody = "RequestBody";
-    String ResponseBody = "ResponseBody";
-    String PathVariable = "PathVariable";
+    String Controller = "org.springframework.stereotype.Controller";
+    String RestController = "org.springframework.web.bind.annotation.RestController";
+    String RequestMapping = "org.springframework.web.bind.annotation.RequestMapping";
+    String RequestParam = "org.springframework.web.bind.annotation.RequestParam";
+    String GetMapping = "org.springframework.web.bind.annotation.GetMapping";
+    String PostMapping = "org.springframework.web.bind.annotation.PostMapping";
+    String PutMapping = "org.springframework.web.bind.annotation.PutMapping";
+    String DeleteMapping = "org.springframework.web.bind.annotation.DeleteMapping";
+    String PatchMapping = "org.springframework.web.bind.annotation.PatchMapping";
+    String RequestBody = "org.springframework.web.bind.annotation.RequestBody";
+    String ResponseBody = "org.springframework.web.bind.annotation.ResponseBody";
+    String PathVariable = "org.springframework.web.bind.annotation.PathVariable";
 }
@@ -0,0 +1,115 @@
+package site.forgus.plugins.apigenerator.metrics;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.Processor;
+import com.intellij.util.ThrowableRunnable;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 运行指标服务，批量生成或上传开始时创建新的指标，结束时保存快照供工具窗口展示与导出。
+ * 多个任务可同时运行，各任务在自己的线程(包括并行解析与上传线程)上绑定自己的指标
+ */
+public class MetricsService {
+
+    private static final ThreadLocal<MetricsRegistry> boundRegistry = new ThreadLocal<>();
+
+    private final MetricsRegistry background = new MetricsRegistry("background");
+    private volatile MetricsSnapshot lastSnapshot;
+    private final List<Consumer<MetricsSnapshot>> listeners = new CopyOnWriteArrayList<>();
+
+    public static MetricsService getInstance(Project project) {
+        return ServiceManager.getService(project, MetricsService.class);
+    }
+
+    /**
+     * 当前线程所属任务的指标，不在任务中(如发件箱后台重试)时记录到后台指标
+     */
+    public static MetricsRegistry current(Project project) {
+        MetricsRegistry registry = boundRegistry.get();
+        return registry == null ? getInstance(project).background : registry;
+    }
+
+    /**
+     * 在当前线程上绑定指标执行
+     */
+    public static <E extends Throwable> void run(MetricsRegistry registry, ThrowableRunnable<E> runnable) throws E {
+        MetricsRegistry previous = bindThread(registry);
+        try {
+            runnable.run();
+        } finally {
+            restoreThread(previous);
+        }
+    }
+
+    /**
+     * 包装并行处理逻辑，在执行它的工作线程上绑定指标
+     */
+    public static <T> Processor<T> bind(MetricsRegistry registry, Processor<T> processor) {
+        return element -> {
+            MetricsRegistry previous = bindThread(registry);
+            try {
+                return processor.process(element);
+            } finally {
+                restoreThread(previous);
+            }
+        };
+    }
+
+    /**
+     * 包装提交到线程池的任务，在执行它的线程上绑定指标
+     */
+    public static <V> Callable<V> bind(MetricsRegistry registry, Callable<V> callable) {
+        return () -> {
+            MetricsRegistry previous = bindThread(registry);
+            try {
+                return callable.call();
+            } finally {
+                restoreThread(previous);
+            }
+        };
+    }
+
+    private static MetricsRegistry bindThread(MetricsRegistry registry) {
+        MetricsRegistry previous = boundRegistry.get();
+        boundRegistry.set(registry);
+        return previous;
+    }
+
+    private static void restoreThread(MetricsRegistry previous) {
+        if (previous == null) {
+            boundRegistry.remove();
+        } else {
+            boundRegistry.set(previous);
+        }
+    }
+
+    public MetricsRegistry begin(String runName) {
+        return new MetricsRegistry(runName);
+    }
+
+    public MetricsSnapshot end(MetricsRegistry registry) {
+        MetricsSnapshot snapshot = registry.snapshot();
+        lastSnapshot = snapshot;
+        for (Consumer<MetricsSnapshot> listener : listeners) {
+            listener.accept(snapshot);
+        }
+        return snapshot;
+    }
+
+    public MetricsSnapshot getLastSnapshot() {
+        return lastSnapshot;
+    }
+
+    public void addListener(Consumer<MetricsSnapshot> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<MetricsSnapshot> listener) {
+        listeners.remove(listener);
+    }
+}
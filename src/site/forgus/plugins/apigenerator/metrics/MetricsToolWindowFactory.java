@@ -0,0 +1,74 @@
+package site.forgus.plugins.apigenerator.metrics;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import org.jetbrains.annotations.NotNull;
+import site.forgus.plugins.apigenerator.util.NotificationUtil;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.function.Consumer;
+
+/**
+ * 展示最近一次运行的阶段耗时、调用次数与缓存命中率，支持导出JSON
+ */
+public class MetricsToolWindowFactory implements ToolWindowFactory {
+
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        MetricsService metricsService = MetricsService.getInstance(project);
+        JTextArea textArea = new JTextArea();
+        textArea.setEditable(false);
+        textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, textArea.getFont().getSize()));
+        JButton exportButton = new JButton("Export JSON");
+        exportButton.addActionListener(e -> export(project, metricsService.getLastSnapshot()));
+
+        Consumer<MetricsSnapshot> listener = snapshot -> ApplicationManager.getApplication().invokeLater(() -> show(textArea, exportButton, snapshot));
+        show(textArea, exportButton, metricsService.getLastSnapshot());
+        metricsService.addListener(listener);
+
+        JPanel toolbar = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        toolbar.add(exportButton);
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.add(toolbar, BorderLayout.NORTH);
+        panel.add(new JBScrollPane(textArea), BorderLayout.CENTER);
+        Content content = ContentFactory.SERVICE.getInstance().createContent(panel, "Last Run", false);
+        Disposer.register(content, (Disposable) () -> metricsService.removeListener(listener));
+        toolWindow.getContentManager().addContent(content);
+    }
+
+    private void show(JTextArea textArea, JButton exportButton, MetricsSnapshot snapshot) {
+        textArea.setText(snapshot == null ? "No bulk run yet." : snapshot.format());
+        textArea.setCaretPosition(0);
+        exportButton.setEnabled(snapshot != null);
+    }
+
+    private void export(Project project, MetricsSnapshot snapshot) {
+        if (snapshot == null) {
+            return;
+        }
+        FileSaverDescriptor descriptor = new FileSaverDescriptor("Export Metrics", "Save run metrics as JSON", "json");
+        VirtualFileWrapper wrapper = FileChooserFactory.getInstance().createSaveFileDialog(descriptor, project).save(null, "api-generator-metrics.json");
+        if (wrapper == null) {
+            return;
+        }
+        try {
+            Files.write(wrapper.getFile().toPath(), snapshot.toJson().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            NotificationUtil.errorNotify("Export metrics failed, cause:" + e.getMessage(), project);
+        }
+    }
+}
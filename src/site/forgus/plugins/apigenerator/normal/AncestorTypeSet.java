@@ -0,0 +1,106 @@
+package site.forgus.plugins.apigenerator.normal;
+
+/**
+ * 字段树中某条路径上已展开类型的不可变集合，子路径与父路径共享结构，
+ * 新增与查找均只涉及常数层节点，用于展开字段时的循环引用检测
+ */
+final class AncestorTypeSet {
+
+    static final AncestorTypeSet EMPTY = new AncestorTypeSet(new Node(0, new Object[0]));
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final Node root;
+
+    private AncestorTypeSet(Node root) {
+        this.root = root;
+    }
+
+    boolean contains(String type) {
+        int hash = type.hashCode();
+        Node node = root;
+        int shift = 0;
+        while (true) {
+            if (shift >= Integer.SIZE) {
+                //哈希完全冲突的节点，逐个比较
+                for (Object slot : node.slots) {
+                    if (type.equals(slot)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((node.bitmap & bit) == 0) {
+                return false;
+            }
+            Object slot = node.slots[node.index(bit)];
+            if (!(slot instanceof Node)) {
+                return type.equals(slot);
+            }
+            node = (Node) slot;
+            shift += BITS;
+        }
+    }
+
+    AncestorTypeSet plus(String type) {
+        Node newRoot = insert(root, type, type.hashCode(), 0);
+        return newRoot == root ? this : new AncestorTypeSet(newRoot);
+    }
+
+    private static Node insert(Node node, String type, int hash, int shift) {
+        if (shift >= Integer.SIZE) {
+            for (Object slot : node.slots) {
+                if (type.equals(slot)) {
+                    return node;
+                }
+            }
+            return new Node(0, insertAt(node.slots, node.slots.length, type));
+        }
+        int bit = 1 << ((hash >>> shift) & MASK);
+        int index = node.index(bit);
+        if ((node.bitmap & bit) == 0) {
+            return new Node(node.bitmap | bit, insertAt(node.slots, index, type));
+        }
+        Object slot = node.slots[index];
+        if (slot instanceof Node) {
+            Node child = insert((Node) slot, type, hash, shift + BITS);
+            return child == slot ? node : new Node(node.bitmap, replaceAt(node.slots, index, child));
+        }
+        if (type.equals(slot)) {
+            return node;
+        }
+        String existing = (String) slot;
+        Node child = insert(insert(EMPTY.root, existing, existing.hashCode(), shift + BITS), type, hash, shift + BITS);
+        return new Node(node.bitmap, replaceAt(node.slots, index, child));
+    }
+
+    private static Object[] insertAt(Object[] slots, int index, Object value) {
+        Object[] result = new Object[slots.length + 1];
+        System.arraycopy(slots, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(slots, index, result, index + 1, slots.length - index);
+        return result;
+    }
+
+    private static Object[] replaceAt(Object[] slots, int index, Object value) {
+        Object[] result = slots.clone();
+        result[index] = value;
+        return result;
+    }
+
+    private static final class Node {
+        final int bitmap;
+        final Object[] slots;
+
+        Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+    }
+}
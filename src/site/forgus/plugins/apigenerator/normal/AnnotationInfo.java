@@ -0,0 +1,34 @@
+package site.forgus.plugins.apigenerator.normal;
+
+import com.intellij.psi.PsiAnnotation;
+import lombok.Data;
+import org.apache.commons.lang.StringUtils;
+import site.forgus.plugins.apigenerator.yapi.enums.RequestMethodEnum;
+
+/**
+ * 元素上注解的分类结果，由AnnotationClassifier生成并缓存，不应修改
+ */
+@Data
+public class AnnotationInfo {
+
+    private boolean controller;
+    private boolean responseBody;
+    /**
+     * 请求映射注解，组合注解时为元素上直接声明的注解
+     */
+    private PsiAnnotation mapping;
+    private RequestMethodEnum requestMethod = RequestMethodEnum.POST;
+    private boolean requestBody;
+    private PsiAnnotation requestParam;
+    private PsiAnnotation pathVariable;
+    private boolean required;
+    private String min = "";
+    private String max = "";
+
+    public RequireAndRange getRequireAndRange() {
+        if (StringUtils.isEmpty(min) && StringUtils.isEmpty(max)) {
+            return new RequireAndRange(required, "N/A");
+        }
+        return new RequireAndRange(required, "[" + min + "," + max + "]");
+    }
+}
@@ -0,0 +1,19 @@
+package site.forgus.plugins.apigenerator.normal;
+
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class ApiDoc {
+
+    private String fileName;
+    private String content;
+    private Map<String, Long> dependencies;
+
+    public ApiDoc(String fileName, String content, Map<String, Long> dependencies) {
+        this.fileName = fileName;
+        this.content = content;
+        this.dependencies = dependencies;
+    }
+}
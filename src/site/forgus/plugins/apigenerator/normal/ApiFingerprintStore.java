@@ -0,0 +1,362 @@
+package site.forgus.plugins.apigenerator.normal;
+
+import com.google.gson.Gson;
+import com.intellij.openapi.components.*;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.*;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.jetbrains.annotations.NotNull;
+import site.forgus.plugins.apigenerator.config.ApiGeneratorConfig;
+import site.forgus.plugins.apigenerator.util.DesUtil;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 接口指纹存储，记录每个接口上次生成时依赖源文件的时间戳与生成内容摘要，用于增量生成
+ */
+@State(name = "ApiGeneratorFingerprints", storages = @Storage(StoragePathMacros.WORKSPACE_FILE))
+public class ApiFingerprintStore implements PersistentStateComponent<ApiFingerprintStore.FingerprintState> {
+
+    private static final Gson gson = new Gson();
+
+    private FingerprintState state = new FingerprintState();
+
+    public static ApiFingerprintStore getInstance(Project project) {
+        return ServiceManager.getService(project, ApiFingerprintStore.class);
+    }
+
+    /**
+     * 返回快照，保存时后台任务仍可能在更新指纹；指纹对象更新时整体替换，浅拷贝即可
+     */
+    @NotNull
+    @Override
+    public synchronized FingerprintState getState() {
+        FingerprintState snapshot = new FingerprintState();
+        snapshot.fingerprints = new HashMap<>(state.fingerprints);
+        return snapshot;
+    }
+
+    @Override
+    public synchronized void loadState(@NotNull FingerprintState state) {
+        this.state = state;
+    }
+
+    /**
+     * 接口依赖的源文件及配置是否均未变更，是则无需重新解析
+     *
+     * @param key         接口标识
+     * @param settingHash 配置摘要
+     * @return 是否未变更
+     */
+    public synchronized boolean isSourceUnchanged(String key, String settingHash) {
+        Fingerprint fingerprint = state.fingerprints.get(key);
+        if (fingerprint == null || fingerprint.dependencies.isEmpty() || !fingerprint.settingHash.equals(settingHash)) {
+            return false;
+        }
+        if (!fingerprint.outputPath.isEmpty() && !new File(fingerprint.outputPath).exists()) {
+            return false;
+        }
+        return isDependenciesUnchanged(fingerprint.dependencies);
+    }
+
+    /**
+     * 依赖的源文件是否均未变更
+     *
+     * @param dependencies 依赖文件及版本戳
+     * @return 是否未变更
+     */
+    public static boolean isDependenciesUnchanged(Map<String, Long> dependencies) {
+        VirtualFileManager fileManager = VirtualFileManager.getInstance();
+        for (Map.Entry<String, Long> entry : dependencies.entrySet()) {
+            VirtualFile virtualFile = fileManager.findFileByUrl(entry.getKey());
+            if (virtualFile == null) {
+                return false;
+            }
+            long stamp = stamp(virtualFile);
+            if (stamp < 0 || stamp != entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 生成内容是否与上次一致，是则无需上传或写文件
+     *
+     * @param key         接口标识
+     * @param payloadHash 生成内容摘要
+     * @return 是否一致
+     */
+    public synchronized boolean isPayloadUnchanged(String key, String payloadHash) {
+        Fingerprint fingerprint = state.fingerprints.get(key);
+        return fingerprint != null && fingerprint.payloadHash.equals(payloadHash);
+    }
+
+    /**
+     * 记录接口指纹
+     *
+     * @param key          接口标识
+     * @param settingHash  配置摘要
+     * @param payloadHash  生成内容摘要
+     * @param dependencies 依赖文件及版本戳
+     * @param outputPath   生成的文件路径，上传YApi时为null
+     */
+    public synchronized void update(String key, String settingHash, String payloadHash, Map<String, Long> dependencies, String outputPath) {
+        update(key, settingHash, payloadHash, dependencies, outputPath, null);
+    }
+
+    /**
+     * 记录接口指纹
+     *
+     * @param key          接口标识
+     * @param settingHash  配置摘要
+     * @param payloadHash  生成内容摘要
+     * @param dependencies 依赖文件及版本戳
+     * @param outputPath   生成的文件路径，上传YApi时为null
+     * @param endpoint     YApi接口的"方法 路径"，生成文档时为null
+     */
+    public synchronized void update(String key, String settingHash, String payloadHash, Map<String, Long> dependencies, String outputPath, String endpoint) {
+        Fingerprint fingerprint = new Fingerprint();
+        fingerprint.settingHash = settingHash;
+        fingerprint.payloadHash = payloadHash;
+        fingerprint.dependencies = new HashMap<>(dependencies);
+        fingerprint.outputPath = outputPath == null ? "" : outputPath;
+        fingerprint.endpoint = endpoint == null ? "" : endpoint;
+        state.fingerprints.put(key, fingerprint);
+    }
+
+    /**
+     * 上次上传的YApi接口"方法 路径"，未记录时返回null
+     *
+     * @param key 接口标识
+     */
+    public synchronized String getEndpoint(String key) {
+        Fingerprint fingerprint = state.fingerprints.get(key);
+        return fingerprint == null || fingerprint.endpoint.isEmpty() ? null : fingerprint.endpoint;
+    }
+
+    /**
+     * 上次生成的文件路径，未记录时返回null
+     *
+     * @param key 接口标识
+     */
+    public synchronized String getOutputPath(String key) {
+        Fingerprint fingerprint = state.fingerprints.get(key);
+        return fingerprint == null || fingerprint.outputPath.isEmpty() ? null : fingerprint.outputPath;
+    }
+
+    public synchronized void remove(String key) {
+        state.fingerprints.remove(key);
+    }
+
+    public synchronized void clear() {
+        state.fingerprints.clear();
+    }
+
+    /**
+     * 影响生成内容的配置摘要，连接、并发、覆盖提示等配置不参与，修改它们不会使指纹失效
+     */
+    public static String settingHash(ApiGeneratorConfig config) {
+        return hash(config.excludeFields + "|" + new TreeSet<>(config.excludeFieldNames) + "|" + config.customLiteralTypes + "|" + config.prefix + "|" + config.cnFileName
+                + "|" + config.maxFieldDepth + "|" + config.maxFieldCount + "|" + config.autoCat + "|" + config.defaultCat);
+    }
+
+    public static String hash(Object payload) {
+        return DigestUtils.md5Hex(payload instanceof String ? (String) payload : gson.toJson(payload));
+    }
+
+    /**
+     * 方法签名，作为接口标识的一部分
+     */
+    public static String getMethodSignature(PsiMethod psiMethod) {
+        StringBuilder signature = new StringBuilder();
+        PsiClass containingClass = psiMethod.getContainingClass();
+        if (containingClass != null) {
+            signature.append(containingClass.getQualifiedName());
+        }
+        signature.append("#").append(psiMethod.getName()).append("(");
+        PsiParameter[] parameters = psiMethod.getParameterList().getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (i > 0) {
+                signature.append(",");
+            }
+            signature.append(parameters[i].getType().getCanonicalText());
+        }
+        return signature.append(")").toString();
+    }
+
+    /**
+     * 收集方法及其参数、返回值涉及的全部类所在文件，以及方法、类、参数上注解涉及的文件，需在读操作中调用
+     */
+    public static Map<String, Long> collectDependencies(PsiMethod psiMethod, MethodInfo methodInfo) {
+        Map<String, Long> dependencies = new HashMap<>();
+        addDependency(dependencies, psiMethod.getContainingFile());
+        Set<PsiClass> visitedAnnotations = new HashSet<>();
+        addAnnotationDependencies(dependencies, psiMethod, visitedAnnotations);
+        if (psiMethod.getContainingClass() != null) {
+            addAnnotationDependencies(dependencies, psiMethod.getContainingClass(), visitedAnnotations);
+        }
+        for (PsiParameter parameter : psiMethod.getParameterList().getParameters()) {
+            addAnnotationDependencies(dependencies, parameter, visitedAnnotations);
+        }
+        collectDependencies(dependencies, methodInfo.getRequestFields());
+        if (methodInfo.getResponse() != null) {
+            collectDependencies(dependencies, methodInfo.getResponse(), new HashSet<>());
+        }
+        return dependencies;
+    }
+
+    /**
+     * 收集类及其字段涉及的全部类所在文件，需在读操作中调用
+     */
+    public static Map<String, Long> collectDependencies(PsiClass psiClass, List<FieldInfo> fieldInfos) {
+        Map<String, Long> dependencies = new HashMap<>();
+        addClassDependency(dependencies, psiClass);
+        collectDependencies(dependencies, fieldInfos);
+        return dependencies;
+    }
+
+    private static void collectDependencies(Map<String, Long> dependencies, List<FieldInfo> fieldInfos) {
+        if (fieldInfos == null) {
+            return;
+        }
+        Set<PsiClass> visited = new HashSet<>();
+        for (FieldInfo fieldInfo : fieldInfos) {
+            collectDependencies(dependencies, fieldInfo, visited);
+        }
+    }
+
+    private static void collectDependencies(Map<String, Long> dependencies, FieldInfo fieldInfo, Set<PsiClass> visited) {
+        if (fieldInfo.getPsiType() != null) {
+            collectDependencies(dependencies, fieldInfo.getPsiType(), visited);
+        }
+        //只收集已解析的字段，未解析的字段未参与生成
+        if (fieldInfo.getResolvedChildren() == null) {
+            return;
+        }
+        for (FieldInfo child : fieldInfo.getResolvedChildren()) {
+            collectDependencies(dependencies, child, visited);
+        }
+    }
+
+    /**
+     * 收集类型涉及的全部类，包括数组元素与泛型参数，如Result&lt;List&lt;UserDto&gt;&gt;中的UserDto
+     */
+    private static void collectDependencies(Map<String, Long> dependencies, PsiType psiType, Set<PsiClass> visited) {
+        PsiType type = psiType.getDeepComponentType();
+        if (type instanceof PsiWildcardType) {
+            PsiType bound = ((PsiWildcardType) type).getBound();
+            if (bound != null) {
+                collectDependencies(dependencies, bound, visited);
+            }
+            return;
+        }
+        if (!(type instanceof PsiClassType)) {
+            return;
+        }
+        PsiClassType classType = (PsiClassType) type;
+        PsiClass psiClass = classType.resolve();
+        if (psiClass != null && !(psiClass instanceof PsiTypeParameter) && visited.add(psiClass)) {
+            addClassDependency(dependencies, psiClass);
+        }
+        for (PsiType parameter : classType.getParameters()) {
+            collectDependencies(dependencies, parameter, visited);
+        }
+    }
+
+    /**
+     * 类及其父类所在文件，以及字段注释中{@link}展开的常量类所在文件
+     */
+    private static void addClassDependency(Map<String, Long> dependencies, PsiClass psiClass) {
+        PsiClass current = psiClass;
+        while (current != null && !"java.lang.Object".equals(current.getQualifiedName())) {
+            addDependency(dependencies, current.getContainingFile());
+            for (PsiField psiField : current.getFields()) {
+                for (PsiClass linkClass : DesUtil.listLinkClasses(psiField)) {
+                    addDependency(dependencies, linkClass.getContainingFile());
+                }
+            }
+            current = current.getSuperClass();
+        }
+    }
+
+    /**
+     * 注解属性中引用的常量所在文件，如@RequestMapping(Paths.USER)中的Paths；
+     * 源码中自定义的组合注解所在文件及其元注解涉及的文件
+     */
+    private static void addAnnotationDependencies(Map<String, Long> dependencies, PsiModifierListOwner owner, Set<PsiClass> visited) {
+        for (PsiAnnotation annotation : owner.getAnnotations()) {
+            for (PsiNameValuePair attribute : annotation.getParameterList().getAttributes()) {
+                PsiAnnotationMemberValue value = attribute.getValue();
+                if (value == null) {
+                    continue;
+                }
+                List<PsiReferenceExpression> references = new ArrayList<>(PsiTreeUtil.findChildrenOfType(value, PsiReferenceExpression.class));
+                if (value instanceof PsiReferenceExpression) {
+                    references.add((PsiReferenceExpression) value);
+                }
+                for (PsiReferenceExpression reference : references) {
+                    PsiElement target = reference.resolve();
+                    if (target instanceof PsiField) {
+                        addDependency(dependencies, target.getContainingFile());
+                    }
+                }
+            }
+            PsiClass annotationClass = annotation.resolveAnnotationType();
+            if (annotationClass != null && !(annotationClass instanceof PsiCompiledElement) && visited.add(annotationClass)) {
+                addDependency(dependencies, annotationClass.getContainingFile());
+                addAnnotationDependencies(dependencies, annotationClass, visited);
+            }
+        }
+    }
+
+    private static void addDependency(Map<String, Long> dependencies, PsiFile psiFile) {
+        if (psiFile == null) {
+            return;
+        }
+        addDependency(dependencies, psiFile.getVirtualFile());
+    }
+
+    /**
+     * 添加非源码的依赖文件，如提供Maven坐标的pom
+     */
+    public static void addDependency(Map<String, Long> dependencies, VirtualFile virtualFile) {
+        if (virtualFile == null) {
+            return;
+        }
+        dependencies.put(virtualFile.getUrl(), stamp(virtualFile));
+    }
+
+    /**
+     * 文件版本戳，存在未保存的修改时返回-1，视为已变更
+     */
+    private static long stamp(VirtualFile virtualFile) {
+        if (FileDocumentManager.getInstance().isFileModified(virtualFile)) {
+            return -1;
+        }
+        return virtualFile.getTimeStamp() * 31 + virtualFile.getLength();
+    }
+
+    public static class FingerprintState {
+        public Map<String, Fingerprint> fingerprints = new HashMap<>();
+    }
+
+    public static class Fingerprint {
+        public String settingHash = "";
+        public String payloadHash = "";
+        public String outputPath = "";
+        public String endpoint = "";
+        public Map<String, Long> dependencies = new HashMap<>();
+    }
+}
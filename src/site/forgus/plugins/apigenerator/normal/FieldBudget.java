@@ -0,0 +1,64 @@
+package site.forgus.plugins.apigenerator.normal;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import site.forgus.plugins.apigenerator.config.ApiGeneratorConfig;
+
+/**
+ * 单个接口解析字段的预算，限制字段树的最大深度与字段总数，超出部分截断
+ */
+public class FieldBudget {
+
+    public static final String TRUNCATED_MARK = SchemaNode.TRUNCATED_MARK;
+    /**
+     * 最大深度的上限，防止泛型嵌套过深时栈溢出
+     */
+    public static final int DEPTH_LIMIT = 64;
+    public static final int COUNT_LIMIT = 100000;
+
+    private final int maxDepth;
+    private final int maxCount;
+    private int count;
+
+    public FieldBudget(int maxDepth, int maxCount) {
+        this.maxDepth = maxDepth;
+        this.maxCount = maxCount;
+    }
+
+    public static FieldBudget of(Project project) {
+        ApiGeneratorConfig config = ServiceManager.getService(project, ApiGeneratorConfig.class);
+        return new FieldBudget(clampDepth(config.getState().maxFieldDepth), clampCount(config.getState().maxFieldCount));
+    }
+
+    /**
+     * 最大深度限制在1到{@link #DEPTH_LIMIT}之间
+     */
+    public static int clampDepth(int maxDepth) {
+        return Math.min(DEPTH_LIMIT, Math.max(1, maxDepth));
+    }
+
+    /**
+     * 字段总数限制在1到{@link #COUNT_LIMIT}之间
+     */
+    public static int clampCount(int maxCount) {
+        return Math.min(COUNT_LIMIT, Math.max(1, maxCount));
+    }
+
+    /**
+     * 指定深度的字段是否超出最大深度，根字段深度为0
+     */
+    public boolean isDepthExceeded(int depth) {
+        return maxDepth > 0 && depth > maxDepth;
+    }
+
+    /**
+     * 占用一个字段名额，名额耗尽时返回false
+     */
+    public boolean tryAcquire() {
+        if (maxCount > 0 && count >= maxCount) {
+            return false;
+        }
+        count++;
+        return true;
+    }
+}
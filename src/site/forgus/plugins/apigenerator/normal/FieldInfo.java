@@ -3,21 +3,17 @@ package site.forgus.plugins.apigenerator.normal;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.*;
-import com.intellij.psi.impl.source.PsiClassReferenceType;
-import com.intellij.psi.util.PsiUtil;
 import lombok.Data;
-import org.apache.commons.lang.StringUtils;
 import site.forgus.plugins.apigenerator.config.ApiGeneratorConfig;
 import site.forgus.plugins.apigenerator.constant.TypeEnum;
-import site.forgus.plugins.apigenerator.constant.WebAnnotation;
+import site.forgus.plugins.apigenerator.util.AnnotationClassifier;
 import site.forgus.plugins.apigenerator.util.AssertUtils;
-import site.forgus.plugins.apigenerator.util.DesUtil;
 import site.forgus.plugins.apigenerator.util.FieldUtil;
 
 import java.util.*;
 
 @Data
-public class FieldInfo {
+public class FieldInfo implements SchemaNode {
 
     private String name;
     private PsiType psiType;
@@ -25,94 +21,118 @@ public class FieldInfo {
     private String range;
     private String desc;
     private TypeEnum paramType;
+    private TypeInfo typeInfo;
     private List<FieldInfo> children;
     private FieldInfo parent;
-    private List<PsiAnnotation> annotations;
+    private int depth;
+    private boolean truncated;
+    private boolean resolved;
+    private FieldBudget budget;
+    private AnnotationInfo annotationInfo;
     private Project project;
 
+    /**
+     * 根字段到当前字段路径上的全部类型
+     */
+    private AncestorTypeSet typePath;
+
     @Override
     public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        FieldInfo fieldInfo = (FieldInfo) o;
-        return name.equals(fieldInfo.name) &&
-                Objects.equals(parent, fieldInfo.parent);
+        return this == o;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, parent);
+        return System.identityHashCode(this);
     }
 
-    private static List<String> requiredTexts = Arrays.asList("@NotNull", "@NotBlank", "@NotEmpty", "@PathVariable");
-
     protected ApiGeneratorConfig config;
 
     public FieldInfo(Project project,PsiType psiType) {
         this(project,psiType, "", new PsiAnnotation[0]);
     }
 
+    public FieldInfo(Project project, PsiType psiType, FieldBudget budget) {
+        this(project, null, psiType.getPresentableText(), psiType, "", new PsiAnnotation[0], budget);
+    }
+
     public FieldInfo(Project project,String name, PsiType psiType, String desc, PsiAnnotation[] annotations) {
+        this(project, null, name, psiType, desc, annotations, FieldBudget.of(project));
+    }
+
+    public FieldInfo(Project project, String name, PsiType psiType, String desc, PsiAnnotation[] annotations, FieldBudget budget) {
+        this(project, null, name, psiType, desc, annotations, budget);
+    }
+
+    public FieldInfo(Project project,FieldInfo parent, String name, PsiType psiType, String desc, PsiAnnotation[] annotations) {
+        this(project, parent, name, psiType, desc, annotations, parent.budget);
+    }
+
+    public FieldInfo(Project project,PsiType psiType, String desc, PsiAnnotation[] annotations) {
+        this(project,psiType.getPresentableText(), psiType, desc, annotations);
+    }
+
+    private FieldInfo(Project project, FieldInfo parent, String name, PsiType psiType, String desc, PsiAnnotation[] annotations, FieldBudget budget) {
         this.project = project;
         config = ServiceManager.getService(project,ApiGeneratorConfig.class);
-        RequireAndRange requireAndRange = getRequireAndRange(annotations);
-        String fieldName = getParamName(name, annotations);
+        this.annotationInfo = AnnotationClassifier.classify(annotations);
+        RequireAndRange requireAndRange = annotationInfo.getRequireAndRange();
+        String fieldName = getParamName(name, annotationInfo.getRequestParam());
         this.name = fieldName == null ? "N/A" : fieldName;
         this.psiType = psiType;
         this.require = requireAndRange.isRequire();
         this.range = requireAndRange.getRange();
         this.desc = desc == null ? "" : desc;
-        this.annotations = Arrays.asList(annotations);
+        this.parent = parent;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.budget = budget;
         if (psiType != null) {
-            if (FieldUtil.isNormalType(psiType)) {
-                paramType = TypeEnum.LITERAL;
-            } else if (FieldUtil.isIterableType(psiType)) {
-                paramType = TypeEnum.ARRAY;
-            } else {
-                paramType = TypeEnum.OBJECT;
-            }
-            if (needResolveChildren(psiType)) {
-                this.children = listChildren(this);
-            }
+            typeInfo = TypeRegistry.getInstance(project).classify(psiType);
+            paramType = typeInfo.getParamType();
         } else {
+            typeInfo = TypeInfo.object();
             paramType = TypeEnum.OBJECT;
+            resolved = true;
         }
+        AncestorTypeSet ancestorTypes = parent == null ? AncestorTypeSet.EMPTY : parent.typePath;
+        PsiType valueType = getValueType();
+        this.typePath = valueType == null ? ancestorTypes : ancestorTypes.plus(valueType.getCanonicalText());
     }
 
-    public FieldInfo(Project project,FieldInfo parent, String name, PsiType psiType, String desc, PsiAnnotation[] annotations) {
-        this.project = project;
-        config = ServiceManager.getService(project,ApiGeneratorConfig.class);
-        RequireAndRange requireAndRange = getRequireAndRange(annotations);
-        String fieldName = getParamName(name, annotations);
-        this.name = fieldName == null ? "N/A" : fieldName;
-        this.psiType = psiType;
-        this.require = requireAndRange.isRequire();
-        this.range = requireAndRange.getRange();
-        this.desc = desc == null ? "" : desc;
-        this.annotations = Arrays.asList(annotations);
-        this.parent = parent;
-        if (psiType != null) {
-            if (FieldUtil.isNormalType(psiType)) {
-                paramType = TypeEnum.LITERAL;
-            } else if (FieldUtil.isIterableType(psiType)) {
-                paramType = TypeEnum.ARRAY;
+    /**
+     * 实际类型，Optional解包为其参数类型
+     */
+    private PsiType getValueType() {
+        return typeInfo.getValueType() == null ? psiType : typeInfo.getValueType();
+    }
+
+    /**
+     * 子字段在首次访问时解析，超出最大深度或字段预算时截断，需在读操作中调用
+     */
+    public List<FieldInfo> getChildren() {
+        if (resolved) {
+            return children;
+        }
+        if (needResolveChildren()) {
+            if (budget.isDepthExceeded(depth + 1)) {
+                truncated = true;
             } else {
-                paramType = TypeEnum.OBJECT;
+                //解析失败(如取消)时保持未解析状态，下次访问重新解析
+                children = listChildren(this);
             }
-            if (needResolveChildren(parent, psiType)) {
-                this.children = listChildren(this);
-            }
-        } else {
-            paramType = TypeEnum.OBJECT;
         }
+        resolved = true;
+        return children;
     }
 
-    public FieldInfo(Project project,PsiType psiType, String desc, PsiAnnotation[] annotations) {
-        this(project,psiType.getPresentableText(), psiType, desc, annotations);
+    /**
+     * 已解析的子字段，未解析时返回null，不触发解析
+     */
+    public List<FieldInfo> getResolvedChildren() {
+        return resolved ? children : null;
     }
 
-    private String getParamName(String name, PsiAnnotation[] annotations) {
-        PsiAnnotation requestParamAnnotation = getRequestParamAnnotation(annotations);
+    private String getParamName(String name, PsiAnnotation requestParamAnnotation) {
         if (requestParamAnnotation == null) {
             return name;
         }
@@ -129,194 +149,98 @@ public class FieldInfo {
         return name;
     }
 
-    private PsiAnnotation getRequestParamAnnotation(PsiAnnotation[] annotations) {
-        for (PsiAnnotation annotation : annotations) {
-            if (annotation.getText().contains(WebAnnotation.RequestParam)) {
-                return annotation;
-            }
-        }
-        return null;
-    }
-
     private List<FieldInfo> listChildren(FieldInfo fieldInfo) {
-        PsiType psiType = fieldInfo.getPsiType();
-        if (psiType == null) {
-            return new ArrayList<>();
-        }
-        if (FieldUtil.isNormalType(psiType.getPresentableText())) {
-            //基础类或基础包装类没有子域
+        TypeInfo typeInfo = fieldInfo.getTypeInfo();
+        if (typeInfo.isLiteral() || typeInfo.isMap()) {
+            //基础类型及Map没有子域
             return new ArrayList<>();
         }
-        List<FieldInfo> fieldInfos = new ArrayList<>();
-        if (psiType instanceof PsiClassReferenceType) {
-            //如果是集合类型
-            if (FieldUtil.isIterableType(psiType)) {
-                PsiType iterableType = PsiUtil.extractIterableTypeParameter(psiType, false);
-                if (iterableType == null || FieldUtil.isNormalType(iterableType.getPresentableText()) || isMapType(iterableType)) {
-                    return new ArrayList<>();
-                }
-                return listChildren(new FieldInfo(fieldInfo.getProject(),fieldInfo, iterableType.getPresentableText(), iterableType, "", new PsiAnnotation[0]));
-            }
-            String typeName = psiType.getPresentableText();
-            if (typeName.startsWith("Map")) {
-                fieldInfos.add(new FieldInfo(project,fieldInfo, typeName, null, "", new PsiAnnotation[0]));
-                return fieldInfos;
+        if (typeInfo.isArray()) {
+            PsiType elementType = typeInfo.getElementType();
+            if (elementType == null) {
+                return new ArrayList<>();
             }
-            if (typeName.contains("<")) {
-                PsiClass outerClass = PsiUtil.resolveClassInType(psiType);
-                PsiType innerType = PsiUtil.substituteTypeParameter(psiType, outerClass, 0, false);
-                for (PsiField outField : outerClass.getAllFields()) {
-                    PsiType type = containGeneric(outField.getType().getPresentableText()) ? innerType : outField.getType();
-                    if (config.getState().excludeFields.contains(outField.getName())) {
-                        continue;
-                    }
-                    fieldInfos.add(new FieldInfo(project,fieldInfo, outField.getName(), type, DesUtil.getDescription(outField.getDocComment()), outField.getAnnotations()));
-                }
-                return fieldInfos;
+            TypeInfo elementTypeInfo = TypeRegistry.getInstance(project).classify(elementType);
+            if (elementTypeInfo.isLiteral() || elementTypeInfo.isMap()) {
+                return new ArrayList<>();
             }
-            PsiClass psiClass = PsiUtil.resolveClassInType(psiType);
-            if (psiClass == null) {
+            //元素类型为自身或上层类型(如JsonNode implements Iterable<JsonNode>)时不再展开
+            if (fieldInfo.typePath.contains(elementType.getCanonicalText())) {
                 return new ArrayList<>();
             }
-            for (PsiField psiField : psiClass.getAllFields()) {
-                if (config.getState().excludeFields.contains(psiField.getName())) {
-                    continue;
-                }
-                fieldInfos.add(new FieldInfo(project,fieldInfo, psiField.getName(), psiField.getType(), DesUtil.getDescription(psiField.getDocComment()), psiField.getAnnotations()));
+            if (fieldInfo.budget.isDepthExceeded(fieldInfo.depth + 1) || !fieldInfo.budget.tryAcquire()) {
+                fieldInfo.truncated = true;
+                return new ArrayList<>();
             }
-            return fieldInfos;
+            FieldInfo elementInfo = new FieldInfo(fieldInfo.getProject(),fieldInfo, elementType.getPresentableText(), elementType, "", new PsiAnnotation[0]);
+            List<FieldInfo> elementChildren = listChildren(elementInfo);
+            fieldInfo.truncated = elementInfo.truncated;
+            return elementChildren;
         }
-        return new ArrayList<>();
-    }
-
-    private boolean needResolveChildren(PsiType psiType) {
-        PsiClass psiClass = PsiUtil.resolveClassInType(psiType);
-        if(psiClass != null) {
-            if(psiClass.isEnum()) {
-                return false;
+        List<FieldInfo> fieldInfos = new ArrayList<>();
+        for (FieldSchema fieldSchema : TypeSchemaCache.getInstance(project).listFieldSchemas(fieldInfo.getValueType())) {
+            if (config.getState().excludeFields.contains(fieldSchema.getName())) {
+                continue;
+            }
+            if (!fieldInfo.budget.tryAcquire()) {
+                fieldInfo.truncated = true;
+                break;
             }
+            fieldInfos.add(new FieldInfo(project, fieldInfo, fieldSchema.getName(), fieldSchema.getPsiType(), fieldSchema.getDesc(), fieldSchema.getAnnotations()));
         }
-        return !isMapType(psiType);
+        return fieldInfos;
     }
 
-    private boolean needResolveChildren(FieldInfo parent, PsiType psiType) {
-        if (parent == null) {
-            return true;
-        }
-        PsiClass psiClass = PsiUtil.resolveClassInType(psiType);
-        if(psiClass != null) {
-            if(psiClass.isEnum()) {
-                return false;
-            }
-        }
-        if (isMapType(psiType)) {
+    /**
+     * 基础类型、Map及与上层字段类型相同（循环引用）的字段不展开
+     */
+    private boolean needResolveChildren() {
+        if (typeInfo.isLiteral() || typeInfo.isMap()) {
             return false;
         }
-        Set<PsiType> resolvedTypeSet = new HashSet<>();
-        FieldInfo p = parent;
-        while (p != null) {
-            resolvedTypeSet.add(p.getPsiType());
-            p = p.getParent();
-        }
-        if (TypeEnum.ARRAY.equals(paramType)) {
-            psiType = PsiUtil.extractIterableTypeParameter(psiType, false);
-        }
-        for (PsiType resolvedType : resolvedTypeSet) {
-            if (resolvedType.equals(psiType)) {
-                return false;
-            }
+        if (parent == null) {
+            return true;
         }
-        return true;
+        PsiType resolveType = typeInfo.isArray() ? typeInfo.getElementType() : getValueType();
+        return resolveType == null || !parent.typePath.contains(resolveType.getCanonicalText());
     }
 
-    private boolean isMapType(PsiType psiType) {
-        String presentableText = psiType.getPresentableText();
-        List<String> mapList = Arrays.asList("Map","HashMap","LinkedHashMap","JSONObject");
-        if(mapList.contains(presentableText)) {
-            return true;
-        }
-        return presentableText.startsWith("Map<") || presentableText.startsWith("HashMap<") || presentableText.startsWith("LinkedHashMap<");
+    @Override
+    public boolean hasChildren() {
+        return AssertUtils.isNotEmpty(getChildren());
     }
 
-    private boolean containGeneric(String str) {
-        for (String generic : FieldUtil.genericList) {
-            if (str.contains(generic)) {
-                return true;
-            }
-        }
-        return false;
+    @Override
+    public String getTypeText() {
+        return psiType == null ? "" : psiType.getPresentableText();
     }
 
-    private RequireAndRange getRequireAndRange(PsiAnnotation[] annotations) {
-        if (annotations.length == 0) {
-            return RequireAndRange.instance();
+    @Override
+    public String getSchemaId() {
+        if (typeInfo.isLiteral() || typeInfo.isMap()) {
+            return null;
         }
-        boolean require = false;
-        String min = "";
-        String max = "";
-        String range = "N/A";
-        for (PsiAnnotation annotation : annotations) {
-            if (isParamRequired(annotation)) {
-                require = true;
-                break;
-            }
+        PsiType type = typeInfo.isArray() ? typeInfo.getElementType() : getValueType();
+        if (!(type instanceof PsiClassType)) {
+            return null;
         }
-        for (PsiAnnotation annotation : annotations) {
-            String qualifiedName = annotation.getText();
-            if (qualifiedName.contains("Length") || qualifiedName.contains("Range") || qualifiedName.contains("Size")) {
-                PsiAnnotationMemberValue minValue = annotation.findAttributeValue("min");
-                if (minValue != null) {
-                    min = minValue.getText();
-                    break;
-                }
-            }
-            if (qualifiedName.contains("Min")) {
-                PsiAnnotationMemberValue minValue = annotation.findAttributeValue("value");
-                if (minValue != null) {
-                    min = minValue.getText();
-                    break;
-                }
+        if (typeInfo.isArray()) {
+            TypeInfo elementTypeInfo = TypeRegistry.getInstance(project).classify(type);
+            if (elementTypeInfo.isLiteral() || elementTypeInfo.isMap()) {
+                return null;
             }
         }
-        for (PsiAnnotation annotation : annotations) {
-            String qualifiedName = annotation.getText();
-            if (qualifiedName.contains("Length") || qualifiedName.contains("Range") || qualifiedName.contains("Size")) {
-                PsiAnnotationMemberValue maxValue = annotation.findAttributeValue("max");
-                if (maxValue != null) {
-                    max = maxValue.getText();
-                    break;
-                }
-            }
-            if (qualifiedName.contains("Max")) {
-                PsiAnnotationMemberValue maxValue = annotation.findAttributeValue("value");
-                if (maxValue != null) {
-                    max = maxValue.getText();
-                    break;
-                }
-            }
-        }
-        if (StringUtils.isNotEmpty(min) || StringUtils.isNotEmpty(max)) {
-            range = "[" + min + "," + max + "]";
-        }
-        return new RequireAndRange(require, range);
+        return type.getCanonicalText();
     }
 
-    private boolean isParamRequired(PsiAnnotation annotation) {
-        String annotationText = annotation.getText();
-        if (annotationText.contains(WebAnnotation.RequestParam)) {
-            PsiNameValuePair[] psiNameValuePairs = annotation.getParameterList().getAttributes();
-            for (PsiNameValuePair psiNameValuePair : psiNameValuePairs) {
-                if ("required".equals(psiNameValuePair.getName()) && "false".equals(psiNameValuePair.getLiteralValue())) {
-                    return false;
-                }
-            }
-            return true;
-        }
-        return requiredTexts.contains(annotationText.split("\\(")[0]);
+    @Override
+    public Object getExample() {
+        return FieldUtil.getValue(project, psiType);
     }
 
-    public boolean hasChildren() {
-        return AssertUtils.isNotEmpty(children);
+    @Override
+    public Object getElementExample() {
+        return FieldUtil.getElementValue(project, psiType);
     }
 
 }
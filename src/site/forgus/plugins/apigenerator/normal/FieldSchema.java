@@ -0,0 +1,24 @@
+package site.forgus.plugins.apigenerator.normal;
+
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiType;
+import lombok.Data;
+
+/**
+ * 类型解析出的字段定义，已完成泛型替换与注释解析
+ */
+@Data
+public class FieldSchema {
+
+    private String name;
+    private PsiType psiType;
+    private String desc;
+    private PsiAnnotation[] annotations;
+
+    public FieldSchema(String name, PsiType psiType, String desc, PsiAnnotation[] annotations) {
+        this.name = name;
+        this.psiType = psiType;
+        this.desc = desc;
+        this.annotations = annotations;
+    }
+}
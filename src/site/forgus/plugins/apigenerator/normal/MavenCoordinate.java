@@ -0,0 +1,20 @@
+package site.forgus.plugins.apigenerator.normal;
+
+import lombok.Data;
+
+/**
+ * Maven坐标
+ */
+@Data
+public class MavenCoordinate {
+
+    private String groupId;
+    private String artifactId;
+    private String version;
+
+    public MavenCoordinate(String groupId, String artifactId, String version) {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+    }
+}
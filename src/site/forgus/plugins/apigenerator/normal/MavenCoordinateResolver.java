@@ -0,0 +1,130 @@
+package site.forgus.plugins.apigenerator.normal;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 解析代码所在模块的Maven坐标，优先取模块根目录下的pom，否则取文件上层最近的pom，
+ * 结果按模块缓存，pom文件变更(VFS时间戳变化)后重新解析
+ */
+public class MavenCoordinateResolver {
+
+    private static final Logger LOG = Logger.getInstance(MavenCoordinateResolver.class);
+
+    private static final String POM_FILE_NAME = "pom.xml";
+
+    private final Map<String, CachedCoordinate> cache = new ConcurrentHashMap<>();
+
+    public static MavenCoordinateResolver getInstance(Project project) {
+        return ServiceManager.getService(project, MavenCoordinateResolver.class);
+    }
+
+    /**
+     * 获取元素所在模块的Maven坐标，需在读操作中调用
+     *
+     * @param element 类或方法
+     * @return Maven坐标，非Maven项目或pom无法解析时为null
+     */
+    public MavenCoordinate resolve(PsiElement element) {
+        Module module = ModuleUtilCore.findModuleForPsiElement(element);
+        VirtualFile pom = findPom(element, module);
+        if (pom == null) {
+            return null;
+        }
+        String key = module == null ? pom.getPath() : module.getName();
+        long stamp = pom.getModificationStamp();
+        CachedCoordinate cached = cache.get(key);
+        if (cached != null && cached.pomPath.equals(pom.getPath()) && cached.stamp == stamp) {
+            return cached.coordinate;
+        }
+        MavenCoordinate coordinate = readPom(pom);
+        cache.put(key, new CachedCoordinate(pom.getPath(), stamp, coordinate));
+        return coordinate;
+    }
+
+    /**
+     * 获取元素所在模块的pom，坐标取自该文件，生成结果应以它为依赖，需在读操作中调用
+     *
+     * @param element 类或方法
+     * @return pom文件，非Maven项目时为null
+     */
+    public VirtualFile findPom(PsiElement element) {
+        return findPom(element, ModuleUtilCore.findModuleForPsiElement(element));
+    }
+
+    private static VirtualFile findPom(PsiElement element, Module module) {
+        VirtualFile pom = findModulePom(module);
+        if (pom != null) {
+            return pom;
+        }
+        PsiFile psiFile = element.getContainingFile();
+        return findNearestPom(psiFile == null ? null : psiFile.getOriginalFile().getVirtualFile());
+    }
+
+    private static VirtualFile findModulePom(Module module) {
+        if (module == null) {
+            return null;
+        }
+        for (VirtualFile contentRoot : ModuleRootManager.getInstance(module).getContentRoots()) {
+            VirtualFile pom = contentRoot.findChild(POM_FILE_NAME);
+            if (pom != null && !pom.isDirectory()) {
+                return pom;
+            }
+        }
+        return null;
+    }
+
+    private static VirtualFile findNearestPom(VirtualFile file) {
+        VirtualFile dir = file == null ? null : file.getParent();
+        while (dir != null) {
+            VirtualFile pom = dir.findChild(POM_FILE_NAME);
+            if (pom != null && !pom.isDirectory()) {
+                return pom;
+            }
+            dir = dir.getParent();
+        }
+        return null;
+    }
+
+    /**
+     * 解析pom，groupId与version未声明时继承parent
+     */
+    private static MavenCoordinate readPom(VirtualFile pom) {
+        try (InputStream inputStream = pom.getInputStream()) {
+            Model model = new MavenXpp3Reader().read(inputStream);
+            Parent parent = model.getParent();
+            String groupId = model.getGroupId() == null && parent != null ? parent.getGroupId() : model.getGroupId();
+            String version = model.getVersion() == null && parent != null ? parent.getVersion() : model.getVersion();
+            return new MavenCoordinate(groupId, model.getArtifactId(), version);
+        } catch (Exception e) {
+            LOG.warn("Failed to read " + pom.getPath(), e);
+            return null;
+        }
+    }
+
+    private static class CachedCoordinate {
+        private final String pomPath;
+        private final long stamp;
+        private final MavenCoordinate coordinate;
+
+        CachedCoordinate(String pomPath, long stamp, MavenCoordinate coordinate) {
+            this.pomPath = pomPath;
+            this.stamp = stamp;
+            this.coordinate = coordinate;
+        }
+    }
+}
@@ -4,12 +4,10 @@ import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiParameter;
 import com.intellij.psi.PsiType;
-import com.intellij.psi.javadoc.PsiDocComment;
-import com.intellij.psi.javadoc.PsiDocTag;
 import com.intellij.psi.util.PsiUtil;
 import lombok.Data;
-import org.apache.commons.lang.StringUtils;
 import site.forgus.plugins.apigenerator.util.DesUtil;
+import site.forgus.plugins.apigenerator.util.SignatureUtil;
 
 import java.io.Serializable;
 import java.util.*;
@@ -25,7 +23,6 @@ public class MethodInfo implements Serializable {
     private String paramStr;
     private String methodName;
     private List<FieldInfo> requestFields;
-    private List<FieldInfo> responseFields;
     private FieldInfo response;
 
     private List<String> excludeParamTypes = Arrays.asList("RedirectAttributes", "HttpServletRequest", "HttpServletResponse");
@@ -42,17 +39,23 @@ public class MethodInfo implements Serializable {
         if (returnType != null) {
             this.setReturnStr(returnType.getPresentableText());
         }
-        this.setParamStr(psiMethod.getParameterList().getText());
+        this.setParamStr(SignatureUtil.formatParameters(psiMethod));
         this.setMethodName(psiMethod.getName());
-        this.setRequestFields(listParamFieldInfos(psiMethod));
-        FieldInfo fieldInfo = new FieldInfo(psiMethod.getProject(), psiMethod.getReturnType());
-        this.response = fieldInfo;
-        this.setResponseFields(fieldInfo.getChildren());
+        FieldBudget budget = FieldBudget.of(psiMethod.getProject());
+        this.setRequestFields(listParamFieldInfos(psiMethod, budget));
+        this.response = new FieldInfo(psiMethod.getProject(), psiMethod.getReturnType(), budget);
     }
 
-    private List<FieldInfo> listParamFieldInfos(PsiMethod psiMethod) {
+    /**
+     * 返回值的子字段，首次访问时解析，需在读操作中调用
+     */
+    public List<FieldInfo> getResponseFields() {
+        return response == null ? null : response.getChildren();
+    }
+
+    private List<FieldInfo> listParamFieldInfos(PsiMethod psiMethod, FieldBudget budget) {
         List<FieldInfo> fieldInfoList = new ArrayList<>();
-        Map<String, String> paramNameDescMap = getParamDescMap(psiMethod.getDocComment());
+        Map<String, String> paramNameDescMap = DesUtil.getJavadoc(DesUtil.getDocComment(psiMethod)).getParams();
         PsiParameter[] psiParameters = psiMethod.getParameterList().getParameters();
         for (PsiParameter psiParameter : psiParameters) {
             PsiType psiType = psiParameter.getType();
@@ -64,33 +67,11 @@ public class MethodInfo implements Serializable {
                     psiParameter.getName(),
                     psiType,
                     paramNameDescMap.get(psiParameter.getName()),
-                    psiParameter.getAnnotations()
+                    psiParameter.getAnnotations(),
+                    budget
             );
             fieldInfoList.add(fieldInfo);
         }
         return fieldInfoList;
     }
-
-    private Map<String, String> getParamDescMap(PsiDocComment docComment) {
-        Map<String, String> paramDescMap = new HashMap<>();
-        if (docComment == null) {
-            return paramDescMap;
-        }
-        for (PsiDocTag docTag : docComment.getTags()) {
-            String tagValue = docTag.getValueElement() == null ? "" : docTag.getValueElement().getText();
-            if ("param".equals(docTag.getName()) && StringUtils.isNotEmpty(tagValue)) {
-                paramDescMap.put(tagValue, getParamDesc(docTag.getText()));
-            }
-        }
-        return paramDescMap;
-    }
-
-    private String getParamDesc(String tagText) {
-        String[] strings = tagText.replace("*", "").trim().split(" ");
-        if (strings.length == 3) {
-            String desc = strings[2];
-            return desc.replace("\n", "");
-        }
-        return "";
-    }
 }
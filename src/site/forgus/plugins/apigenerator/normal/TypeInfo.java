@@ -0,0 +1,72 @@
+package site.forgus.plugins.apigenerator.normal;
+
+import com.intellij.psi.PsiType;
+import lombok.Getter;
+import site.forgus.plugins.apigenerator.constant.TypeEnum;
+
+/**
+ * 类型分类结果，由TypeRegistry生成并缓存
+ */
+@Getter
+public class TypeInfo {
+
+    private final TypeEnum paramType;
+    /**
+     * 是否为Map及其子类
+     */
+    private final boolean map;
+    /**
+     * 数组或集合的元素类型
+     */
+    private final PsiType elementType;
+    /**
+     * 基础类型的示例值
+     */
+    private final Object value;
+    /**
+     * Optional等包装类型解包后的实际类型，为null时即为字段类型本身
+     */
+    private final PsiType valueType;
+
+    private TypeInfo(TypeEnum paramType, boolean map, PsiType elementType, Object value, PsiType valueType) {
+        this.paramType = paramType;
+        this.map = map;
+        this.elementType = elementType;
+        this.value = value;
+        this.valueType = valueType;
+    }
+
+    public static TypeInfo literal(Object value) {
+        return new TypeInfo(TypeEnum.LITERAL, false, null, value, null);
+    }
+
+    public static TypeInfo array(PsiType elementType) {
+        return new TypeInfo(TypeEnum.ARRAY, false, elementType, null, null);
+    }
+
+    public static TypeInfo map() {
+        return new TypeInfo(TypeEnum.OBJECT, true, null, null, null);
+    }
+
+    public static TypeInfo object() {
+        return new TypeInfo(TypeEnum.OBJECT, false, null, null, null);
+    }
+
+    /**
+     * 按实际类型分类的结果，记录解包后的实际类型，多层包装时保留最内层类型
+     */
+    public TypeInfo unwrappedFrom(PsiType valueType) {
+        if (this.valueType != null) {
+            return this;
+        }
+        return new TypeInfo(paramType, map, elementType, value, valueType);
+    }
+
+    public boolean isLiteral() {
+        return TypeEnum.LITERAL.equals(paramType);
+    }
+
+    public boolean isArray() {
+        return TypeEnum.ARRAY.equals(paramType);
+    }
+}
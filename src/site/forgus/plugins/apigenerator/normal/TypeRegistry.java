@@ -0,0 +1,231 @@
+package site.forgus.plugins.apigenerator.normal;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.*;
+import com.intellij.psi.util.InheritanceUtil;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiUtil;
+import org.apache.commons.lang.StringUtils;
+import site.forgus.plugins.apigenerator.config.ApiGeneratorConfig;
+import site.forgus.plugins.apigenerator.metrics.MetricNames;
+import site.forgus.plugins.apigenerator.metrics.MetricsService;
+
+import java.util.*;
+
+/**
+ * 类型分类注册表：按全限定名登记基础类型及示例值，按继承关系识别集合、数组与Map，
+ * 分类结果按类型文本缓存，源码结构变更或自定义基础类型配置变更后失效
+ */
+public class TypeRegistry {
+
+    private static final int MAX_SIZE = 1024;
+
+    private static final Map<String, Object> builtinLiteralTypes;
+
+    static {
+        Map<String, Object> literalTypes = new HashMap<>();
+        literalTypes.put("int", 1);
+        literalTypes.put("boolean", false);
+        literalTypes.put("byte", 1);
+        literalTypes.put("short", 1);
+        literalTypes.put("long", 1L);
+        literalTypes.put("float", 1.0F);
+        literalTypes.put("double", 1.0D);
+        literalTypes.put("char", 'a');
+        literalTypes.put("java.lang.Boolean", false);
+        literalTypes.put("java.lang.Byte", 0);
+        literalTypes.put("java.lang.Short", (short) 0);
+        literalTypes.put("java.lang.Integer", 0);
+        literalTypes.put("java.lang.Long", 0L);
+        literalTypes.put("java.lang.Float", 0.0F);
+        literalTypes.put("java.lang.Double", 0.0D);
+        literalTypes.put("java.lang.Character", 'a');
+        literalTypes.put("java.lang.String", "@string");
+        literalTypes.put("java.lang.CharSequence", "@string");
+        literalTypes.put("java.math.BigDecimal", 0.111111);
+        literalTypes.put("java.math.BigInteger", 0);
+        literalTypes.put("java.util.Date", 1577808000000L);
+        literalTypes.put("java.sql.Date", 1577808000000L);
+        literalTypes.put("java.sql.Timestamp", 1577808000000L);
+        literalTypes.put("java.util.UUID", "00000000-0000-0000-0000-000000000000");
+        literalTypes.put("java.time.LocalDateTime", "yyyy-MM-dd HH:mm:ss");
+        literalTypes.put("java.time.LocalDate", "yyyy-MM-dd");
+        literalTypes.put("java.time.LocalTime", "HH:mm:ss");
+        literalTypes.put("java.time.Instant", "2020-01-01T00:00:00Z");
+        literalTypes.put("java.time.OffsetDateTime", "2020-01-01T00:00:00+08:00");
+        literalTypes.put("java.time.ZonedDateTime", "2020-01-01T00:00:00+08:00");
+        builtinLiteralTypes = Collections.unmodifiableMap(literalTypes);
+    }
+
+    private final PsiModificationTracker modificationTracker;
+    private final ApiGeneratorConfig config;
+    private final Project project;
+    private long modificationCount = -1;
+    private String customLiteralTypesText;
+    private Map<String, Object> literalTypes = builtinLiteralTypes;
+
+    private final Map<String, TypeInfo> typeInfoMap = new LinkedHashMap<String, TypeInfo>(64, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TypeInfo> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    public TypeRegistry(Project project) {
+        this.project = project;
+        this.modificationTracker = PsiModificationTracker.getInstance(project);
+        this.config = ServiceManager.getService(project, ApiGeneratorConfig.class);
+    }
+
+    public static TypeRegistry getInstance(Project project) {
+        return ServiceManager.getService(project, TypeRegistry.class);
+    }
+
+    /**
+     * 类型分类，需在读操作中调用
+     *
+     * @param psiType 类型
+     * @return 分类结果
+     */
+    public TypeInfo classify(PsiType psiType) {
+        String key = psiType.getCanonicalText();
+        if (!(psiType instanceof PsiPrimitiveType) && key.indexOf('.') < 0) {
+            //类型参数或无法解析的类型，不同上下文中同名但含义不同，不缓存
+            return resolveTypeInfo(psiType, currentLiteralTypes());
+        }
+        long count = modificationTracker.getOutOfCodeBlockModificationCount();
+        Map<String, Object> literalTypes;
+        synchronized (typeInfoMap) {
+            literalTypes = currentLiteralTypes();
+            if (count != modificationCount) {
+                typeInfoMap.clear();
+                modificationCount = count;
+            }
+            TypeInfo typeInfo = typeInfoMap.get(key);
+            if (typeInfo != null) {
+                MetricsService.current(project).hit(MetricNames.CACHE_TYPE_REGISTRY);
+                return typeInfo;
+            }
+        }
+        MetricsService.current(project).miss(MetricNames.CACHE_TYPE_REGISTRY);
+        TypeInfo typeInfo = resolveTypeInfo(psiType, literalTypes);
+        if (containsTypeParameter(psiType)) {
+            //如java.util.List<T>，元素类型随上下文变化
+            return typeInfo;
+        }
+        synchronized (typeInfoMap) {
+            if (count == modificationCount && literalTypes == this.literalTypes) {
+                typeInfoMap.put(key, typeInfo);
+            }
+        }
+        return typeInfo;
+    }
+
+    private static boolean containsTypeParameter(PsiType psiType) {
+        if (psiType instanceof PsiArrayType) {
+            return containsTypeParameter(((PsiArrayType) psiType).getComponentType());
+        }
+        if (psiType instanceof PsiWildcardType) {
+            PsiType bound = ((PsiWildcardType) psiType).getBound();
+            return bound != null && containsTypeParameter(bound);
+        }
+        if (!(psiType instanceof PsiClassType)) {
+            return false;
+        }
+        PsiClassType classType = (PsiClassType) psiType;
+        if (classType.resolve() instanceof PsiTypeParameter) {
+            return true;
+        }
+        for (PsiType parameter : classType.getParameters()) {
+            if (containsTypeParameter(parameter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 当前生效的基础类型表，自定义基础类型配置变更时重建并清空缓存
+     */
+    private Map<String, Object> currentLiteralTypes() {
+        synchronized (typeInfoMap) {
+            String text = config.getState().customLiteralTypes;
+            if (!StringUtils.equals(text, customLiteralTypesText)) {
+                customLiteralTypesText = text;
+                literalTypes = buildLiteralTypes(text);
+                typeInfoMap.clear();
+            }
+            return literalTypes;
+        }
+    }
+
+    /**
+     * 自定义基础类型，格式为逗号分隔的全限定名，可用=指定示例值，如com.example.Money=0.00
+     */
+    private static Map<String, Object> buildLiteralTypes(String text) {
+        if (StringUtils.isBlank(text)) {
+            return builtinLiteralTypes;
+        }
+        Map<String, Object> literalTypes = new HashMap<>(builtinLiteralTypes);
+        for (String item : text.split(",")) {
+            String[] pair = item.split("=", 2);
+            String qualifiedName = pair[0].trim();
+            if (!qualifiedName.isEmpty()) {
+                literalTypes.put(qualifiedName, pair.length > 1 ? pair[1].trim() : "");
+            }
+        }
+        return Collections.unmodifiableMap(literalTypes);
+    }
+
+    private TypeInfo resolveTypeInfo(PsiType psiType, Map<String, Object> literalTypes) {
+        if (psiType instanceof PsiPrimitiveType) {
+            Object value = literalTypes.get(psiType.getCanonicalText());
+            return value == null ? TypeInfo.object() : TypeInfo.literal(value);
+        }
+        if (psiType instanceof PsiArrayType) {
+            return TypeInfo.array(((PsiArrayType) psiType).getComponentType());
+        }
+        if (!(psiType instanceof PsiClassType)) {
+            return TypeInfo.object();
+        }
+        PsiClass psiClass = ((PsiClassType) psiType).resolve();
+        if (psiClass == null) {
+            //无法解析时按java.lang下的类型处理
+            Object value = literalTypes.get("java.lang." + ((PsiClassType) psiType).getClassName());
+            return value == null ? TypeInfo.object() : TypeInfo.literal(value);
+        }
+        if (psiClass instanceof PsiTypeParameter) {
+            PsiClassType[] bounds = psiClass.getExtendsListTypes();
+            return bounds.length == 0 ? TypeInfo.object() : resolveTypeInfo(bounds[0], literalTypes);
+        }
+        String qualifiedName = psiClass.getQualifiedName();
+        if (qualifiedName != null && literalTypes.containsKey(qualifiedName)) {
+            return TypeInfo.literal(literalTypes.get(qualifiedName));
+        }
+        if (psiClass.isEnum()) {
+            return TypeInfo.literal(getEnumValue(psiClass));
+        }
+        if (CommonClassNames.JAVA_UTIL_OPTIONAL.equals(qualifiedName)) {
+            PsiType[] parameters = ((PsiClassType) psiType).getParameters();
+            return parameters.length == 0 ? TypeInfo.object() : resolveTypeInfo(parameters[0], literalTypes).unwrappedFrom(parameters[0]);
+        }
+        if (InheritanceUtil.isInheritor(psiClass, CommonClassNames.JAVA_UTIL_MAP)) {
+            return TypeInfo.map();
+        }
+        if (InheritanceUtil.isInheritor(psiClass, CommonClassNames.JAVA_LANG_ITERABLE)) {
+            //元素类型为自身的Iterable(如JsonNode、Path)，展开时由FieldInfo按循环引用截断
+            return TypeInfo.array(PsiUtil.extractIterableTypeParameter(psiType, false));
+        }
+        return TypeInfo.object();
+    }
+
+    private Object getEnumValue(PsiClass enumClass) {
+        for (PsiField psiField : enumClass.getFields()) {
+            if (psiField instanceof PsiEnumConstant) {
+                return psiField.getName();
+            }
+        }
+        return "";
+    }
+}
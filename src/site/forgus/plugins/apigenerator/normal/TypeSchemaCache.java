@@ -0,0 +1,95 @@
+package site.forgus.plugins.apigenerator.normal;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.*;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.TypeConversionUtil;
+import site.forgus.plugins.apigenerator.metrics.MetricNames;
+import site.forgus.plugins.apigenerator.metrics.MetricsService;
+import site.forgus.plugins.apigenerator.util.DesUtil;
+
+import java.util.*;
+
+/**
+ * 类型字段解析缓存，按类型(含泛型参数)缓存字段定义，源码结构或注释变更后整体失效
+ */
+public class TypeSchemaCache {
+
+    private static final int MAX_SIZE = 1024;
+
+    private final Project project;
+    private final PsiModificationTracker modificationTracker;
+    private long modificationCount = -1;
+
+    private final Map<String, List<FieldSchema>> schemaMap = new LinkedHashMap<String, List<FieldSchema>>(64, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<FieldSchema>> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    public TypeSchemaCache(Project project) {
+        this.project = project;
+        this.modificationTracker = PsiModificationTracker.getInstance(project);
+    }
+
+    public static TypeSchemaCache getInstance(Project project) {
+        return ServiceManager.getService(project, TypeSchemaCache.class);
+    }
+
+    /**
+     * 获取类型的全部字段定义，需在读操作中调用
+     *
+     * @param psiType 对象类型
+     * @return 字段定义列表（未做字段过滤）
+     */
+    public List<FieldSchema> listFieldSchemas(PsiType psiType) {
+        String key = psiType.getCanonicalText();
+        long count = modificationTracker.getOutOfCodeBlockModificationCount();
+        synchronized (schemaMap) {
+            if (count != modificationCount) {
+                schemaMap.clear();
+                modificationCount = count;
+            }
+            List<FieldSchema> fieldSchemas = schemaMap.get(key);
+            if (fieldSchemas != null) {
+                MetricsService.current(project).hit(MetricNames.CACHE_TYPE_SCHEMA);
+                return fieldSchemas;
+            }
+        }
+        MetricsService.current(project).miss(MetricNames.CACHE_TYPE_SCHEMA);
+        List<FieldSchema> fieldSchemas = resolveFieldSchemas(psiType);
+        synchronized (schemaMap) {
+            if (count == modificationCount) {
+                schemaMap.put(key, fieldSchemas);
+            }
+        }
+        return fieldSchemas;
+    }
+
+    private List<FieldSchema> resolveFieldSchemas(PsiType psiType) {
+        if (!(psiType instanceof PsiClassType)) {
+            return Collections.emptyList();
+        }
+        PsiClassType.ClassResolveResult resolveResult = ((PsiClassType) psiType).resolveGenerics();
+        PsiClass psiClass = resolveResult.getElement();
+        if (psiClass == null) {
+            return Collections.emptyList();
+        }
+        PsiSubstitutor substitutor = resolveResult.getSubstitutor();
+        List<FieldSchema> fieldSchemas = new ArrayList<>();
+        for (PsiField psiField : psiClass.getAllFields()) {
+            //按声明字段的类(可能是父类)替换泛型参数
+            PsiClass fieldClass = psiField.getContainingClass();
+            PsiSubstitutor fieldSubstitutor = fieldClass == null || fieldClass == psiClass
+                    ? substitutor : TypeConversionUtil.getSuperClassSubstitutor(fieldClass, psiClass, substitutor);
+            PsiType type = fieldSubstitutor.substitute(psiField.getType());
+            if (type == null) {
+                type = TypeConversionUtil.erasure(psiField.getType());
+            }
+            fieldSchemas.add(new FieldSchema(psiField.getName(), type, DesUtil.getFieldDesc(psiField), psiField.getAnnotations()));
+        }
+        return Collections.unmodifiableList(fieldSchemas);
+    }
+}
@@ -0,0 +1,239 @@
+package site.forgus.plugins.apigenerator.util;
+
+import com.intellij.openapi.util.RecursionManager;
+import com.intellij.psi.*;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import site.forgus.plugins.apigenerator.constant.WebAnnotation;
+import site.forgus.plugins.apigenerator.normal.AnnotationInfo;
+import site.forgus.plugins.apigenerator.yapi.enums.RequestMethodEnum;
+
+import java.util.*;
+
+/**
+ * 注解分类工具，按全限定名识别Spring Web与参数校验注解，支持组合注解（元注解），
+ * 分类结果按修饰符列表缓存，源码变更后失效
+ */
+public class AnnotationClassifier {
+
+    private static final Map<String, RequestMethodEnum> mappingMethods = new HashMap<>();
+
+    private static final Set<String> requiredAnnotations = new HashSet<>(Arrays.asList(
+            "javax.validation.constraints.NotNull",
+            "javax.validation.constraints.NotBlank",
+            "javax.validation.constraints.NotEmpty",
+            "jakarta.validation.constraints.NotNull",
+            "jakarta.validation.constraints.NotBlank",
+            "jakarta.validation.constraints.NotEmpty",
+            "org.hibernate.validator.constraints.NotBlank",
+            "org.hibernate.validator.constraints.NotEmpty"));
+
+    /**
+     * 通过min、max属性声明值域的注解
+     */
+    private static final Set<String> rangeAnnotations = new HashSet<>(Arrays.asList(
+            "javax.validation.constraints.Size",
+            "jakarta.validation.constraints.Size",
+            "org.hibernate.validator.constraints.Length",
+            "org.hibernate.validator.constraints.Range"));
+
+    private static final Set<String> minAnnotations = new HashSet<>(Arrays.asList(
+            "javax.validation.constraints.Min",
+            "javax.validation.constraints.DecimalMin",
+            "jakarta.validation.constraints.Min",
+            "jakarta.validation.constraints.DecimalMin"));
+
+    private static final Set<String> maxAnnotations = new HashSet<>(Arrays.asList(
+            "javax.validation.constraints.Max",
+            "javax.validation.constraints.DecimalMax",
+            "jakarta.validation.constraints.Max",
+            "jakarta.validation.constraints.DecimalMax"));
+
+    /**
+     * 不会作为组合注解的包，跳过元注解解析
+     */
+    private static final List<String> ignoredPackages = Arrays.asList("java.", "javax.annotation.", "kotlin.", "lombok.");
+
+    static {
+        mappingMethods.put(WebAnnotation.GetMapping, RequestMethodEnum.GET);
+        mappingMethods.put(WebAnnotation.PostMapping, RequestMethodEnum.POST);
+        mappingMethods.put(WebAnnotation.PutMapping, RequestMethodEnum.PUT);
+        mappingMethods.put(WebAnnotation.DeleteMapping, RequestMethodEnum.DELETE);
+        mappingMethods.put(WebAnnotation.PatchMapping, RequestMethodEnum.PATCH);
+    }
+
+    public static AnnotationInfo classify(PsiModifierListOwner owner) {
+        return classify(owner.getModifierList());
+    }
+
+    public static AnnotationInfo classify(PsiAnnotation[] annotations) {
+        if (annotations.length == 0) {
+            return new AnnotationInfo();
+        }
+        PsiAnnotationOwner owner = annotations[0].getOwner();
+        if (owner instanceof PsiModifierList) {
+            return classify((PsiModifierList) owner);
+        }
+        return doClassify(annotations);
+    }
+
+    /**
+     * 分类修饰符列表上的注解，需在读操作中调用
+     *
+     * @param modifierList 修饰符列表
+     * @return 分类结果
+     */
+    public static AnnotationInfo classify(PsiModifierList modifierList) {
+        if (modifierList == null) {
+            return new AnnotationInfo();
+        }
+        return CachedValuesManager.getCachedValue(modifierList, () ->
+                CachedValueProvider.Result.create(doClassify(modifierList.getAnnotations()), PsiModificationTracker.MODIFICATION_COUNT));
+    }
+
+    private static AnnotationInfo doClassify(PsiAnnotation[] annotations) {
+        AnnotationInfo info = new AnnotationInfo();
+        for (PsiAnnotation annotation : annotations) {
+            String qualifiedName = annotation.getQualifiedName();
+            if (qualifiedName == null) {
+                continue;
+            }
+            if (!applyKnownAnnotation(info, annotation, qualifiedName)) {
+                applyMetaAnnotations(info, annotation, qualifiedName);
+            }
+        }
+        return info;
+    }
+
+    private static boolean applyKnownAnnotation(AnnotationInfo info, PsiAnnotation annotation, String qualifiedName) {
+        if (WebAnnotation.Controller.equals(qualifiedName)) {
+            info.setController(true);
+        } else if (WebAnnotation.RestController.equals(qualifiedName)) {
+            info.setController(true);
+            info.setResponseBody(true);
+        } else if (WebAnnotation.ResponseBody.equals(qualifiedName)) {
+            info.setResponseBody(true);
+        } else if (WebAnnotation.RequestMapping.equals(qualifiedName)) {
+            if (info.getMapping() == null) {
+                info.setMapping(annotation);
+                info.setRequestMethod(getRequestMethod(annotation));
+            }
+        } else if (mappingMethods.containsKey(qualifiedName)) {
+            if (info.getMapping() == null) {
+                info.setMapping(annotation);
+                info.setRequestMethod(mappingMethods.get(qualifiedName));
+            }
+        } else if (WebAnnotation.RequestBody.equals(qualifiedName)) {
+            info.setRequestBody(true);
+        } else if (WebAnnotation.RequestParam.equals(qualifiedName)) {
+            info.setRequestParam(annotation);
+            if (!isOptional(annotation)) {
+                info.setRequired(true);
+            }
+        } else if (WebAnnotation.PathVariable.equals(qualifiedName)) {
+            info.setPathVariable(annotation);
+            info.setRequired(true);
+        } else if (requiredAnnotations.contains(qualifiedName)) {
+            info.setRequired(true);
+        } else if (rangeAnnotations.contains(qualifiedName)) {
+            applyMin(info, annotation, "min");
+            applyMax(info, annotation, "max");
+        } else if (minAnnotations.contains(qualifiedName)) {
+            applyMin(info, annotation, "value");
+        } else if (maxAnnotations.contains(qualifiedName)) {
+            applyMax(info, annotation, "value");
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 组合注解：按注解类型上的元注解分类，请求映射等需要读取属性的注解仍以当前注解为准
+     */
+    private static void applyMetaAnnotations(AnnotationInfo info, PsiAnnotation annotation, String qualifiedName) {
+        for (String ignoredPackage : ignoredPackages) {
+            if (qualifiedName.startsWith(ignoredPackage)) {
+                return;
+            }
+        }
+        PsiJavaCodeReferenceElement reference = annotation.getNameReferenceElement();
+        PsiElement annotationType = reference == null ? null : reference.resolve();
+        if (!(annotationType instanceof PsiClass) || !((PsiClass) annotationType).isAnnotationType()) {
+            return;
+        }
+        PsiModifierList modifierList = ((PsiClass) annotationType).getModifierList();
+        if (modifierList == null) {
+            return;
+        }
+        AnnotationInfo metaInfo = RecursionManager.doPreventingRecursion(modifierList, true, () -> classify(modifierList));
+        if (metaInfo == null) {
+            return;
+        }
+        info.setController(info.isController() || metaInfo.isController());
+        info.setResponseBody(info.isResponseBody() || metaInfo.isResponseBody());
+        info.setRequestBody(info.isRequestBody() || metaInfo.isRequestBody());
+        info.setRequired(info.isRequired() || metaInfo.isRequired());
+        if (info.getMapping() == null && metaInfo.getMapping() != null) {
+            info.setMapping(annotation);
+            info.setRequestMethod(metaInfo.getRequestMethod());
+        }
+        if (info.getRequestParam() == null && metaInfo.getRequestParam() != null) {
+            info.setRequestParam(annotation);
+        }
+        if (info.getPathVariable() == null && metaInfo.getPathVariable() != null) {
+            info.setPathVariable(annotation);
+        }
+        if (info.getMin().isEmpty()) {
+            info.setMin(metaInfo.getMin());
+        }
+        if (info.getMax().isEmpty()) {
+            info.setMax(metaInfo.getMax());
+        }
+    }
+
+    private static RequestMethodEnum getRequestMethod(PsiAnnotation requestMapping) {
+        PsiAnnotationMemberValue value = requestMapping.findDeclaredAttributeValue("method");
+        if (value instanceof PsiArrayInitializerMemberValue) {
+            PsiAnnotationMemberValue[] initializers = ((PsiArrayInitializerMemberValue) value).getInitializers();
+            value = initializers.length == 0 ? null : initializers[0];
+        }
+        if (value instanceof PsiReferenceExpression) {
+            String methodName = ((PsiReferenceExpression) value).getReferenceName();
+            for (RequestMethodEnum requestMethodEnum : RequestMethodEnum.values()) {
+                if (requestMethodEnum.name().equals(methodName)) {
+                    return requestMethodEnum;
+                }
+            }
+        }
+        return RequestMethodEnum.POST;
+    }
+
+    private static boolean isOptional(PsiAnnotation requestParam) {
+        PsiAnnotationMemberValue value = requestParam.findDeclaredAttributeValue("required");
+        return value instanceof PsiLiteral && Boolean.FALSE.equals(((PsiLiteral) value).getValue());
+    }
+
+    private static void applyMin(AnnotationInfo info, PsiAnnotation annotation, String attributeName) {
+        PsiAnnotationMemberValue value = annotation.findAttributeValue(attributeName);
+        if (info.getMin().isEmpty() && value != null) {
+            info.setMin(getValueText(value));
+        }
+    }
+
+    private static void applyMax(AnnotationInfo info, PsiAnnotation annotation, String attributeName) {
+        PsiAnnotationMemberValue value = annotation.findAttributeValue(attributeName);
+        if (info.getMax().isEmpty() && value != null) {
+            info.setMax(getValueText(value));
+        }
+    }
+
+    /**
+     * 属性值优先按常量计算，避免读取源码文本
+     */
+    private static String getValueText(PsiAnnotationMemberValue value) {
+        Object constant = JavaPsiFacade.getInstance(value.getProject()).getConstantEvaluationHelper().computeConstantExpression(value);
+        return constant == null ? value.getText() : constant.toString();
+    }
+}
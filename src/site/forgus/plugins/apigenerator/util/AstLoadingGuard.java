@@ -0,0 +1,113 @@
+package site.forgus.plugins.apigenerator.util;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.psi.PsiManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileFilter;
+import com.intellij.psi.impl.PsiManagerEx;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 语法树加载检查，用于测试验证解析过程只依赖stub：
+ * 开启系统属性api.generator.assertAstLoading后，Javadoc以外的语法树加载会报错并计入每次安装各自的计数。
+ * 同一项目同时有多个任务安装时共用一个过滤器，期间的加载计入全部进行中的任务
+ */
+public class AstLoadingGuard {
+
+    public static final String ASSERT_PROPERTY = "api.generator.assertAstLoading";
+
+    private static final ThreadLocal<int[]> allowedDepth = ThreadLocal.withInitial(() -> new int[1]);
+    private static final Map<Project, ProjectFilter> projectFilters = new HashMap<>();
+
+    private final Project project;
+    private final AtomicInteger unexpectedLoads = new AtomicInteger();
+
+    private AstLoadingGuard(Project project) {
+        this.project = project;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ASSERT_PROPERTY);
+    }
+
+    /**
+     * 开启检查时安装文件加载过滤器
+     *
+     * @param project 项目
+     * @return 本次安装，用于卸载并获取计数，未开启检查时返回null
+     */
+    public static AstLoadingGuard install(Project project) {
+        if (!isEnabled()) {
+            return null;
+        }
+        AstLoadingGuard guard = new AstLoadingGuard(project);
+        synchronized (projectFilters) {
+            ProjectFilter projectFilter = projectFilters.get(project);
+            if (projectFilter == null) {
+                projectFilter = new ProjectFilter();
+                ((PsiManagerEx) PsiManager.getInstance(project)).setAssertOnFileLoadingFilter(projectFilter, projectFilter.disposable);
+                projectFilters.put(project, projectFilter);
+            }
+            projectFilter.guards.add(guard);
+        }
+        return guard;
+    }
+
+    /**
+     * 卸载本次安装，最后一个安装卸载时移除过滤器
+     *
+     * @param guard install的返回值
+     * @return 本次安装期间非预期加载语法树的次数
+     */
+    public static int uninstall(AstLoadingGuard guard) {
+        if (guard == null) {
+            return 0;
+        }
+        synchronized (projectFilters) {
+            ProjectFilter projectFilter = projectFilters.get(guard.project);
+            if (projectFilter != null && projectFilter.guards.remove(guard) && projectFilter.guards.isEmpty()) {
+                projectFilters.remove(guard.project);
+                Disposer.dispose(projectFilter.disposable);
+            }
+        }
+        return guard.unexpectedLoads.get();
+    }
+
+    private static class ProjectFilter implements VirtualFileFilter {
+
+        private final Disposable disposable = Disposer.newDisposable();
+        private final List<AstLoadingGuard> guards = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean accept(VirtualFile file) {
+            if (allowedDepth.get()[0] > 0) {
+                return false;
+            }
+            for (AstLoadingGuard guard : guards) {
+                guard.unexpectedLoads.incrementAndGet();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 执行允许加载语法树的计算，仅用于读取Javadoc
+     */
+    public static <T> T allowLoading(Computable<T> computable) {
+        int[] depth = allowedDepth.get();
+        depth[0]++;
+        try {
+            return computable.compute();
+        } finally {
+            depth[0]--;
+        }
+    }
+}
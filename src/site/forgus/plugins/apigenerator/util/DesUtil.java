@@ -1,45 +1,34 @@
 package site.forgus.plugins.apigenerator.util;
 
-import com.google.common.base.Strings;
-import com.intellij.openapi.project.Project;
-import com.intellij.psi.JavaPsiFacade;
-import com.intellij.psi.PsiClass;
-import com.intellij.psi.PsiField;
-import com.intellij.psi.PsiMethod;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.Pair;
+import com.intellij.psi.*;
 import com.intellij.psi.javadoc.PsiDocComment;
-import com.intellij.psi.javadoc.PsiDocTag;
-import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import site.forgus.plugins.apigenerator.metrics.MetricNames;
+import site.forgus.plugins.apigenerator.metrics.MetricsRegistry;
+import site.forgus.plugins.apigenerator.metrics.MetricsService;
+import site.forgus.plugins.apigenerator.normal.JavadocInfo;
 
-import java.util.Objects;
+import java.util.*;
 
 /**
  * 描述工具, 用于获取各种注释
  */
 public class DesUtil {
 
+    private static final Key<Pair<Long, JavadocInfo>> JAVADOC_KEY = Key.create("api.generator.javadoc");
 
     /**
-     * 去除字符串首尾出现的某个字符.
+     * 获取Javadoc，Javadoc不在stub中，读取时允许加载语法树
      *
-     * @param source  源字符串.
-     * @param element 需要去除的字符.
-     * @return String.
+     * @param owner 类、方法或字段
+     * @return Javadoc
      */
-    private static String trimFirstAndLastChar(String source, char element) {
-        boolean beginIndexFlag;
-        boolean endIndexFlag;
-        do {
-            if (Strings.isNullOrEmpty(source.trim()) || source.equals(String.valueOf(element))) {
-                source = "";
-                break;
-            }
-            int beginIndex = source.indexOf(element) == 0 ? 1 : 0;
-            int endIndex = source.lastIndexOf(element) + 1 == source.length() ? source.lastIndexOf(element) : source.length();
-            source = source.substring(beginIndex, endIndex);
-            beginIndexFlag = (source.indexOf(element) == 0);
-            endIndexFlag = (source.lastIndexOf(element) + 1 == source.length());
-        } while (beginIndexFlag || endIndexFlag);
-        return source;
+    public static PsiDocComment getDocComment(PsiDocCommentOwner owner) {
+        return AstLoadingGuard.allowLoading(owner::getDocComment);
     }
 
     /**
@@ -49,35 +38,14 @@ public class DesUtil {
      * @return the description
      */
     public static String getDescription(PsiMethod psiMethodTarget) {
-        return getDescription(psiMethodTarget.getDocComment());
+        return getDescription(getDocComment(psiMethodTarget));
     }
 
     public static String getDescription(PsiDocComment psiDocComment) {
-        if (psiDocComment != null) {
-            PsiDocTag[] psiDocTags = psiDocComment.getTags();
-            for (PsiDocTag psiDocTag : psiDocTags) {
-                if (psiDocTag.getText().contains("@description") || psiDocTag.getText().contains("@Description") || psiDocTag.getText().toLowerCase().contains("description")) {
-                    return trimFirstAndLastChar(psiDocTag.getText().replace("@description", "").replace("@Description", "").replace("Description", "").replace("<br>", "").replace(":", "").replace("*", "").replace("\n", " "), ' ');
-                }
-            }
-            return trimFirstAndLastChar(
-                    psiDocComment.getText().split("@")[0]
-                            .replace("@description", "")
-                            .replace("@Description", "")
-                            .replace("Description", "")
-                            .replace("<br>", "\n")
-                            .replace(":", "")
-                            .replace("*", "")
-                            .replace("/", "")
-                            .replace("\n", " ")
-                            .replace("<p>", "\n")
-                            .replace("</p>", "\n")
-                            .replace("<li>", "\n")
-                            .replace("</li>", "\n")
-                            .replace("{", ""), ' '
-            );
+        if (psiDocComment == null) {
+            return null;
         }
-        return null;
+        return getJavadoc(psiDocComment).getDesc();
     }
 
     /**
@@ -88,94 +56,155 @@ public class DesUtil {
      * @return the param desc
      */
     public static String getParamDesc(PsiMethod psiMethodTarget, String paramName) {
-        if (psiMethodTarget.getDocComment() != null) {
-            PsiDocTag[] psiDocTags = psiMethodTarget.getDocComment().getTags();
-            for (PsiDocTag psiDocTag : psiDocTags) {
-                if ((psiDocTag.getText().contains("@param") || psiDocTag.getText().contains("@Param")) && (!psiDocTag.getText().contains("[")) && psiDocTag.getText().contains(paramName)) {
-                    return trimFirstAndLastChar(psiDocTag.getText().replace("@param", "").replace("@Param", "").replace(paramName, "").replace(":", "").replace("*", "").replace("\n", " "), ' ');
+        String paramDesc = getJavadoc(getDocComment(psiMethodTarget)).getParams().get(paramName);
+        return paramDesc == null ? "" : paramDesc;
+    }
+
+    /**
+     * 解析Javadoc，结果缓存在注释上，所在文件修改后重新解析
+     *
+     * @param psiDocComment Javadoc
+     * @return 解析结果
+     */
+    public static JavadocInfo getJavadoc(PsiDocComment psiDocComment) {
+        if (psiDocComment == null) {
+            return JavadocInfo.EMPTY;
+        }
+        PsiFile psiFile = psiDocComment.getContainingFile();
+        long stamp = psiFile == null ? -1 : psiFile.getModificationStamp();
+        Pair<Long, JavadocInfo> cached = psiDocComment.getUserData(JAVADOC_KEY);
+        MetricsRegistry metrics = MetricsService.current(psiDocComment.getProject());
+        if (cached != null && cached.first == stamp) {
+            metrics.hit(MetricNames.CACHE_JAVADOC);
+            return cached.second;
+        }
+        metrics.miss(MetricNames.CACHE_JAVADOC);
+        long start = System.nanoTime();
+        JavadocInfo javadocInfo = JavadocTokenizer.parse(psiDocComment.getText());
+        metrics.record(MetricNames.JAVADOC_PARSE, start);
+        psiDocComment.putUserData(JAVADOC_KEY, Pair.create(stamp, javadocInfo));
+        return javadocInfo;
+    }
+
+    /**
+     * 获得字段描述，注释中{@link}指向的枚举或常量类展开为常量列表
+     *
+     * @param psiField 字段
+     * @return 字段描述
+     */
+    public static String getFieldDesc(PsiField psiField) {
+        PsiDocComment docComment = getDocComment(psiField);
+        if (docComment == null) {
+            return null;
+        }
+        StringBuilder desc = new StringBuilder(getJavadoc(docComment).getDesc());
+        for (PsiClass linkClass : listLinkClasses(psiField)) {
+            String constantRemark = getConstantRemark(linkClass);
+            if (!constantRemark.isEmpty()) {
+                if (desc.length() > 0) {
+                    desc.append(",");
                 }
+                desc.append(constantRemark);
             }
         }
-        return "";
+        return desc.toString();
     }
 
     /**
-     * 获得属性注释
+     * 字段注释中{@link}指向的类，去重后按出现顺序返回，结果缓存在字段上，源码变更后重新解析
      *
-     * @param psiDocComment the psi doc comment
-     * @return the filed desc
+     * @param psiField 字段
+     * @return {@link}目标类
      */
-    private static String getFiledDesc(PsiDocComment psiDocComment) {
-        if (Objects.nonNull(psiDocComment)) {
-            String fileText = psiDocComment.getText();
-            if (!Strings.isNullOrEmpty(fileText)) {
-                return trimFirstAndLastChar(fileText.replace("*", "").replace("/", "").replace(" ", "").replace("\n", ",").replace("\t", ""), ',').split("\\{@link")[0];
+    public static List<PsiClass> listLinkClasses(PsiField psiField) {
+        return CachedValuesManager.getCachedValue(psiField, () ->
+                CachedValueProvider.Result.create(resolveLinkClasses(psiField), PsiModificationTracker.MODIFICATION_COUNT));
+    }
+
+    private static List<PsiClass> resolveLinkClasses(PsiField psiField) {
+        PsiDocComment docComment = getDocComment(psiField);
+        if (docComment == null) {
+            return Collections.emptyList();
+        }
+        Set<PsiClass> linkClasses = new LinkedHashSet<>();
+        for (String link : getJavadoc(docComment).getLinks()) {
+            PsiClass linkClass = resolveLinkClass(link, psiField);
+            if (linkClass != null) {
+                linkClasses.add(linkClass);
             }
         }
-        return "";
+        return Collections.unmodifiableList(new ArrayList<>(linkClasses));
     }
 
     /**
-     * 获得link 备注
-     *
-     * @param remark  the remark
-     * @param project the project
-     * @param field   the field
-     * @return the link remark
+     * 按字段所在文件的import解析{@link}目标类，忽略#后的成员
      */
-    public static String getLinkRemark(String remark, Project project, PsiField field) {
-        // 尝试获得@link 的常量定义
-        if (Objects.isNull(field.getDocComment())) {
-            return remark;
+    private static PsiClass resolveLinkClass(String link, PsiElement context) {
+        int memberIndex = link.indexOf('#');
+        String className = memberIndex < 0 ? link : link.substring(0, memberIndex);
+        if (className.isEmpty()) {
+            return null;
         }
-        String[] linkString = field.getDocComment().getText().split("@link");
-        if (linkString.length > 1) {
-            //说明有link
-            String linkAddress = linkString[1].split("}")[0].trim();
-            PsiClass psiClassLink = JavaPsiFacade.getInstance(project).findClass(linkAddress, GlobalSearchScope.allScope(project));
-            if (Objects.isNull(psiClassLink)) {
-                //可能没有获得全路径，尝试获得全路径
-                String[] importPaths = field.getParent().getContext() != null ? field.getParent().getContext().getText().split("import") : new String[0];
-                if (importPaths.length > 1) {
-                    for (String importPath : importPaths) {
-                        if (importPath.contains(linkAddress.split("\\.")[0])) {
-                            linkAddress = importPath.split(linkAddress.split("\\.")[0])[0] + linkAddress;
-                            psiClassLink = JavaPsiFacade.getInstance(project).findClass(linkAddress.trim(), GlobalSearchScope.allScope(project));
-                            break;
-                        }
-                    }
+        PsiResolveHelper resolveHelper = JavaPsiFacade.getInstance(context.getProject()).getResolveHelper();
+        return resolveHelper.resolveReferencedClass(className, context);
+    }
+
+    /**
+     * 渲染枚举或常量类的常量列表，格式为 类名[名称:值(注释),...]，结果缓存在类上，源码变更后重新渲染
+     *
+     * @param psiClass 枚举或常量类
+     * @return 常量列表，没有常量时为空串
+     */
+    public static String getConstantRemark(PsiClass psiClass) {
+        return CachedValuesManager.getCachedValue(psiClass, () ->
+                CachedValueProvider.Result.create(AstLoadingGuard.allowLoading(() -> renderConstants(psiClass)),
+                        PsiModificationTracker.MODIFICATION_COUNT));
+    }
+
+    private static String renderConstants(PsiClass psiClass) {
+        StringBuilder remark = new StringBuilder();
+        for (PsiField psiField : psiClass.getFields()) {
+            String value;
+            if (psiField instanceof PsiEnumConstant) {
+                value = getEnumConstantValue((PsiEnumConstant) psiField);
+            } else if (psiField.hasModifierProperty(PsiModifier.STATIC) && psiField.hasModifierProperty(PsiModifier.FINAL)) {
+                Object constant = psiField.computeConstantValue();
+                if (constant == null) {
+                    continue;
                 }
-                //如果小于等于一为不存在import，不做处理
+                value = String.valueOf(constant);
+            } else {
+                continue;
             }
-            if (Objects.nonNull(psiClassLink)) {
-                //说明获得了link 的class
-                PsiField[] linkFields = psiClassLink.getFields();
-                if (linkFields.length > 0) {
-                    remark += "," + psiClassLink.getName() + "[";
-                    StringBuilder remarkBuilder = new StringBuilder(remark);
-                    for (int i = 0; i < linkFields.length; i++) {
-                        PsiField psiField = linkFields[i];
-                        if (i > 0) {
-                            remarkBuilder.append(",");
-                        }
-                        // 先获得名称
-                        remarkBuilder.append(psiField.getName());
-                        // 后获得value,通过= 来截取获得，第二个值，再截取;
-                        String[] splitValue = psiField.getText().split("=");
-                        if (splitValue.length > 1) {
-                            String value = splitValue[1].split(";")[0];
-                            remarkBuilder.append(":").append(value);
-                        }
-                        String filedValue = DesUtil.getFiledDesc(psiField.getDocComment());
-                        if (!Strings.isNullOrEmpty(filedValue)) {
-                            remarkBuilder.append("(").append(filedValue).append(")");
-                        }
-                    }
-                    remark = remarkBuilder.toString();
-                    remark += "]";
-                }
+            remark.append(remark.length() == 0 ? "" : ",").append(psiField.getName());
+            if (!value.isEmpty()) {
+                remark.append(":").append(value);
+            }
+            String fieldDesc = getJavadoc(psiField.getDocComment()).getDesc();
+            if (!fieldDesc.isEmpty()) {
+                remark.append("(").append(fieldDesc).append(")");
             }
         }
-        return remark;
+        if (remark.length() == 0) {
+            return "";
+        }
+        return psiClass.getName() + "[" + remark + "]";
+    }
+
+    /**
+     * 枚举常量的构造参数，能计算出常量值的取常量值，多个参数以/分隔
+     */
+    private static String getEnumConstantValue(PsiEnumConstant enumConstant) {
+        PsiExpressionList argumentList = enumConstant.getArgumentList();
+        if (argumentList == null) {
+            return "";
+        }
+        PsiConstantEvaluationHelper evaluationHelper = JavaPsiFacade.getInstance(enumConstant.getProject()).getConstantEvaluationHelper();
+        StringJoiner value = new StringJoiner("/");
+        for (PsiExpression expression : argumentList.getExpressions()) {
+            Object constant = evaluationHelper.computeConstantExpression(expression);
+            value.add(constant == null ? expression.getText() : String.valueOf(constant));
+        }
+        return value.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,220 @@
+package site.forgus.plugins.apigenerator.util;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import site.forgus.plugins.apigenerator.metrics.MetricNames;
+import site.forgus.plugins.apigenerator.metrics.MetricsRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 文档写入队列，由固定数量的I/O线程写文件，内容未变化时跳过写入，
+ * 写入先落到同目录临时文件再重命名，中途失败不会留下写了一半的文档，全部完成后统一刷新VFS
+ */
+public class DocWriteQueue {
+
+    private static final int THREADS = 4;
+    private static final long POLL_MILLIS = 100;
+
+    private final ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor("Api Doc Writer", THREADS);
+    private final Semaphore permits = new Semaphore(THREADS * 2);
+    private final List<Future<String>> futures = Collections.synchronizedList(new ArrayList<>());
+    private final Set<File> writtenFiles = ConcurrentHashMap.newKeySet();
+    private final MetricsRegistry metrics;
+
+    public DocWriteQueue(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 提交写入任务
+     *
+     * @param indicator 后台任务进度，等待队列空位时响应取消
+     * @param file      目标文件
+     * @param content   文档内容
+     * @param onWritten 写入成功或内容未变化时在I/O线程上回调
+     */
+    public void submit(ProgressIndicator indicator, File file, String content, Runnable onWritten) {
+        acquire(indicator);
+        futures.add(executor.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                if (writeIfChanged(file, content.getBytes(StandardCharsets.UTF_8))) {
+                    writtenFiles.add(file);
+                } else {
+                    metrics.increment(MetricNames.WRITE_UNCHANGED);
+                }
+                metrics.record(MetricNames.WRITE_FILE, start);
+                onWritten.run();
+                return null;
+            } catch (IOException e) {
+                return file.getName() + ": " + e.getMessage();
+            } finally {
+                permits.release();
+            }
+        }));
+    }
+
+    /**
+     * 等待全部写入完成，并对写入过的文件做一次批量VFS刷新
+     *
+     * @param indicator 后台任务进度
+     * @return 写入失败的错误信息
+     */
+    public List<String> awaitErrors(ProgressIndicator indicator) {
+        List<String> errors = new ArrayList<>();
+        try {
+            for (Future<String> future : listFutures()) {
+                String error = await(indicator, future);
+                if (error != null) {
+                    errors.add(error);
+                }
+            }
+        } catch (ProcessCanceledException e) {
+            cancel();
+            throw e;
+        }
+        refreshVfs();
+        return errors;
+    }
+
+    /**
+     * 取消未完成的写入，已写入的文件同样刷新VFS
+     */
+    public void cancel() {
+        for (Future<String> future : listFutures()) {
+            future.cancel(true);
+        }
+        refreshVfs();
+    }
+
+    /**
+     * 文件已存在且内容完全相同
+     */
+    public static boolean isSameContent(File file, String content) {
+        try {
+            return isSameContent(file, content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean isSameContent(File file, byte[] bytes) throws IOException {
+        return file.isFile() && file.length() == bytes.length && Arrays.equals(Files.readAllBytes(file.toPath()), bytes);
+    }
+
+    /**
+     * 内容变化时原子写入文件
+     *
+     * @return 是否写入
+     */
+    private static boolean writeIfChanged(File file, byte[] bytes) throws IOException {
+        if (isSameContent(file, bytes)) {
+            return false;
+        }
+        Path target = file.toPath();
+        Path temp = createTempFile(target);
+        try {
+            Files.write(temp, bytes);
+            replace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return true;
+    }
+
+    /**
+     * 流式原子写入文件，内容直接写到同目录临时文件，完成后重命名，适合不便整体放入内存的文档
+     */
+    public static void writeAtomically(File file, ContentWriter content) throws IOException {
+        Path target = file.toPath();
+        Path temp = createTempFile(target);
+        try {
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                content.write(out);
+            }
+            replace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 在目标文件同目录创建临时文件。Files.createTempFile只允许所有者读写，重命名后会保留下来，
+     * 这里按umask使用默认权限创建，目标文件已存在时沿用其权限
+     */
+    private static Path createTempFile(Path target) throws IOException {
+        Path temp = File.createTempFile(target.getFileName().toString(), ".tmp", target.toAbsolutePath().getParent().toFile()).toPath();
+        if (Files.exists(target) && Files.getFileStore(temp).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+        }
+        return temp;
+    }
+
+    private static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void refreshVfs() {
+        if (!writtenFiles.isEmpty()) {
+            LocalFileSystem.getInstance().refreshIoFiles(new ArrayList<>(writtenFiles), true, false, null);
+        }
+    }
+
+    private List<Future<String>> listFutures() {
+        synchronized (futures) {
+            return new ArrayList<>(futures);
+        }
+    }
+
+    private String await(ProgressIndicator indicator, Future<String> future) {
+        while (true) {
+            indicator.checkCanceled();
+            try {
+                return future.get(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                //继续等待
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessCanceledException();
+            } catch (ExecutionException e) {
+                return e.getCause().getMessage();
+            }
+        }
+    }
+
+    private void acquire(ProgressIndicator indicator) {
+        try {
+            while (!permits.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (indicator.isCanceled()) {
+                    cancel();
+                    indicator.checkCanceled();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new ProcessCanceledException();
+        }
+    }
+
+    public interface ContentWriter {
+        void write(Writer out) throws IOException;
+    }
+}
@@ -0,0 +1,143 @@
+package site.forgus.plugins.apigenerator.util;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import site.forgus.plugins.apigenerator.config.ApiGeneratorConfig;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 项目级共享的连接池HttpClient，项目关闭时释放。
+ * 请求通过acquire获取并在结束后释放，连接配置变更后新请求使用新连接池，旧连接池在进行中的请求结束后关闭
+ */
+public class HttpClientService implements Disposable {
+
+    private static final Logger LOG = Logger.getInstance(HttpClientService.class);
+    private static final long IDLE_TIMEOUT_SECONDS = 60;
+    /**
+     * 超时时间下限(毫秒)，0在HttpClient中表示无限等待
+     */
+    private static final int MIN_TIMEOUT_MILLIS = 1000;
+
+    private final ApiGeneratorConfig config;
+    private ClientLease current;
+    private boolean disposed;
+
+    public HttpClientService(Project project) {
+        this.config = ServiceManager.getService(project, ApiGeneratorConfig.class);
+    }
+
+    public static HttpClientService getInstance(Project project) {
+        return ServiceManager.getService(project, HttpClientService.class);
+    }
+
+    /**
+     * 获取当前连接池，请求结束后需调用close释放，项目关闭后不再创建连接池
+     */
+    public synchronized ClientLease acquire() {
+        if (disposed) {
+            throw new IllegalStateException("HttpClientService is already disposed");
+        }
+        if (current == null) {
+            current = new ClientLease(buildHttpClient());
+        }
+        current.retain();
+        return current;
+    }
+
+    /**
+     * 连接配置变更后重建连接池，旧连接池在进行中的请求结束后关闭
+     */
+    public synchronized void reset() {
+        if (current != null) {
+            current.retire();
+            current = null;
+        }
+    }
+
+    /**
+     * 项目关闭时连接池在进行中的请求结束后关闭
+     */
+    @Override
+    public synchronized void dispose() {
+        disposed = true;
+        reset();
+    }
+
+    private CloseableHttpClient buildHttpClient() {
+        int maxPerRoute = Math.max(1, config.maxConnectionsPerRoute);
+        int connectTimeout = Math.max(MIN_TIMEOUT_MILLIS, config.connectTimeout);
+        int readTimeout = Math.max(MIN_TIMEOUT_MILLIS, config.readTimeout);
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setMaxTotal(maxPerRoute * 2);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setConnectionRequestTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout)
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+                .evictExpiredConnections()
+                .evictIdleConnections(IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 带引用计数的连接池，被替换且没有进行中的请求时关闭
+     */
+    public static class ClientLease implements AutoCloseable {
+
+        private final CloseableHttpClient httpClient;
+        private int refCount;
+        private boolean retired;
+
+        private ClientLease(CloseableHttpClient httpClient) {
+            this.httpClient = httpClient;
+        }
+
+        public CloseableHttpClient getHttpClient() {
+            return httpClient;
+        }
+
+        /**
+         * 释放一次acquire
+         */
+        @Override
+        public synchronized void close() {
+            refCount--;
+            if (retired && refCount == 0) {
+                closeClient();
+            }
+        }
+
+        private synchronized void retain() {
+            refCount++;
+        }
+
+        private synchronized void retire() {
+            retired = true;
+            if (refCount == 0) {
+                closeClient();
+            }
+        }
+
+        private void closeClient() {
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                LOG.warn("Failed to close http client", e);
+            }
+        }
+    }
+}
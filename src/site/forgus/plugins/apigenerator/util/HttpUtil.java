@@ -1,13 +1,15 @@
 package site.forgus.plugins.apigenerator.util;
 
+import com.intellij.openapi.project.Project;
 import org.apache.http.HttpEntity;
+import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentProducer;
+import org.apache.http.entity.EntityTemplate;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 
 import java.io.*;
 import java.net.URLEncoder;
@@ -17,12 +19,24 @@ public class HttpUtil {
 
     private static final String CHARSET = "UTF-8";
 
-    public static String doGet(String url, Map<String, String> params) {
-        return doHttpRequst(buildGetRequest(url, params));
+    public static String doGet(Project project, String url, Map<String, String> params) throws IOException {
+        return doHttpRequst(project, buildGetRequest(url, params));
     }
 
-    public static String doPost(String url, String body) {
-        return doHttpRequst(buildPostRequestWithJsonType(url, body));
+    public static String doPost(Project project, String url, String body) throws IOException {
+        return doHttpRequst(project, buildPostRequestWithJsonType(url, body));
+    }
+
+    /**
+     * 以分块传输发送JSON请求体，请求体由producer直接写入连接，不在内存中拼接
+     */
+    public static String doPost(Project project, String url, ContentProducer body) throws IOException {
+        HttpPost httpPost = new HttpPost(url);
+        EntityTemplate reqEntity = new EntityTemplate(body);
+        reqEntity.setContentType("application/json;charset=utf-8");
+        reqEntity.setChunked(true);
+        httpPost.setEntity(reqEntity);
+        return doHttpRequst(project, httpPost);
     }
 
     private static HttpGet buildGetRequest(String url, Map<String, String> params) {
@@ -54,28 +68,20 @@ public class HttpUtil {
         return httpPost;
     }
 
-    private static String doHttpRequst(HttpUriRequest httpUriRequest) {
-        CloseableHttpClient httpclient = HttpClients.createDefault();
-        String responseStr = "";
-        try {
-            CloseableHttpResponse response = httpclient.execute(httpUriRequest);
-            try {
-                responseStr = getStreamAsString(response.getEntity().getContent());
-            } catch (Exception e) {
-                e.printStackTrace();
-            } finally {
-                response.close();
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            try {
-                httpclient.close();
-            } catch (IOException e) {
-                e.printStackTrace();
+    /**
+     * 连接失败或响应状态码非2xx时抛出IOException，状态码错误为{@link HttpResponseException}
+     */
+    private static String doHttpRequst(Project project, HttpUriRequest httpUriRequest) throws IOException {
+        try (HttpClientService.ClientLease lease = HttpClientService.getInstance(project).acquire();
+             CloseableHttpResponse response = lease.getHttpClient().execute(httpUriRequest)) {
+            HttpEntity entity = response.getEntity();
+            String responseStr = entity == null ? "" : getStreamAsString(entity.getContent());
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode < 200 || statusCode >= 300) {
+                throw new HttpResponseException(statusCode, httpUriRequest.getMethod() + " " + httpUriRequest.getURI() + " returned " + response.getStatusLine());
             }
+            return responseStr;
         }
-        return responseStr;
     }
 
     private static String getStreamAsString(InputStream stream) throws IOException {
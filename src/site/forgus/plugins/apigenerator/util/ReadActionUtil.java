@@ -0,0 +1,56 @@
+package site.forgus.plugins.apigenerator.util;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.IndexNotReadyException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Ref;
+import com.intellij.openapi.util.ThrowableComputable;
+
+/**
+ * 后台线程执行读操作工具
+ */
+public class ReadActionUtil {
+
+    /**
+     * 在非阻塞读操作中执行计算，遇到写操作或索引重建时让出并重新执行
+     *
+     * @param project    项目
+     * @param indicator  后台任务进度
+     * @param computable 读操作内的计算
+     * @return 计算结果
+     * @throws E 计算抛出的异常
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, E extends Throwable> T compute(Project project, ProgressIndicator indicator, ThrowableComputable<T, E> computable) throws E {
+        Ref<T> result = Ref.create();
+        Ref<Throwable> error = Ref.create();
+        while (true) {
+            indicator.checkCanceled();
+            DumbService.getInstance(project).waitForSmartMode();
+            try {
+                boolean success = ProgressIndicatorUtils.runInReadActionWithWriteActionPriority(() -> {
+                    try {
+                        result.set(computable.compute());
+                    } catch (ProcessCanceledException | IndexNotReadyException e) {
+                        throw e;
+                    } catch (Throwable e) {
+                        error.set(e);
+                    }
+                }, indicator);
+                if (!error.isNull()) {
+                    throw (E) error.get();
+                }
+                if (success) {
+                    return result.get();
+                }
+            } catch (IndexNotReadyException e) {
+                //索引重建中，等待后重试
+            }
+            ProgressIndicatorUtils.yieldToPendingWriteActions();
+        }
+    }
+
+}
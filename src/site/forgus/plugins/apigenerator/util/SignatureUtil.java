@@ -0,0 +1,85 @@
+package site.forgus.plugins.apigenerator.util;
+
+import com.intellij.psi.*;
+import com.intellij.psi.javadoc.PsiDocComment;
+
+/**
+ * 基于stub输出方法签名，不读取方法源码文本
+ */
+public class SignatureUtil {
+
+    /**
+     * 参数列表，如(@RequestBody UserReq req, Long id)
+     */
+    public static String formatParameters(PsiMethod psiMethod) {
+        StringBuilder builder = new StringBuilder("(");
+        PsiParameter[] parameters = psiMethod.getParameterList().getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            for (PsiAnnotation annotation : parameters[i].getAnnotations()) {
+                appendAnnotation(builder, annotation);
+                builder.append(" ");
+            }
+            builder.append(parameters[i].getType().getPresentableText()).append(" ").append(parameters[i].getName());
+        }
+        return builder.append(")").toString();
+    }
+
+    /**
+     * 方法声明，包括Javadoc、注解、修饰符、返回值、参数及异常，不含方法体
+     */
+    public static String formatMethod(PsiMethod psiMethod) {
+        StringBuilder builder = new StringBuilder();
+        PsiDocComment docComment = DesUtil.getDocComment(psiMethod);
+        if (docComment != null) {
+            builder.append(docComment.getText()).append("\n");
+        }
+        PsiModifierList modifierList = psiMethod.getModifierList();
+        for (PsiAnnotation annotation : modifierList.getAnnotations()) {
+            appendAnnotation(builder, annotation);
+            builder.append("\n");
+        }
+        for (String modifier : PsiModifier.MODIFIERS) {
+            if (modifierList.hasExplicitModifier(modifier)) {
+                builder.append(modifier).append(" ");
+            }
+        }
+        PsiType returnType = psiMethod.getReturnType();
+        if (returnType != null) {
+            builder.append(returnType.getPresentableText()).append(" ");
+        }
+        builder.append(psiMethod.getName()).append(formatParameters(psiMethod));
+        PsiClassType[] throwsTypes = psiMethod.getThrowsList().getReferencedTypes();
+        for (int i = 0; i < throwsTypes.length; i++) {
+            builder.append(i == 0 ? " throws " : ", ").append(throwsTypes[i].getPresentableText());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 注解，属性值取自stub中保存的表达式
+     */
+    private static void appendAnnotation(StringBuilder builder, PsiAnnotation annotation) {
+        PsiJavaCodeReferenceElement reference = annotation.getNameReferenceElement();
+        builder.append("@").append(reference == null ? annotation.getQualifiedName() : reference.getReferenceName());
+        PsiNameValuePair[] attributes = annotation.getParameterList().getAttributes();
+        if (attributes.length == 0) {
+            return;
+        }
+        builder.append("(");
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            String name = attributes[i].getName();
+            if (name != null && !(attributes.length == 1 && "value".equals(name))) {
+                builder.append(name).append(" = ");
+            }
+            PsiAnnotationMemberValue value = attributes[i].getValue();
+            builder.append(value == null ? "" : value.getText());
+        }
+        builder.append(")");
+    }
+}
@@ -0,0 +1,148 @@
+package site.forgus.plugins.apigenerator.yapi.sdk;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import site.forgus.plugins.apigenerator.metrics.MetricNames;
+import site.forgus.plugins.apigenerator.metrics.MetricsService;
+import site.forgus.plugins.apigenerator.yapi.model.YApiCat;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * YApi分类缓存，按YApi项目缓存分类列表，新增分类时同步写入缓存
+ */
+public class YApiCategoryCache {
+
+    private static final long TTL_MILLIS = 5 * 60 * 1000L;
+
+    private final Project project;
+    private final Map<String, CatEntry> catEntryMap = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<YApiCat>> pendingCatMap = new ConcurrentHashMap<>();
+
+    public YApiCategoryCache(Project project) {
+        this.project = project;
+    }
+
+    public static YApiCategoryCache getInstance(Project project) {
+        return ServiceManager.getService(project, YApiCategoryCache.class);
+    }
+
+    /**
+     * 获取分类id，分类不存在时创建，同一分类的并发创建只发起一次请求
+     *
+     * @param serverUrl YApi服务地址
+     * @param token     项目token
+     * @param projectId 项目id
+     * @param catName   分类名称
+     * @return 分类id
+     * @throws IOException
+     */
+    public String getCatId(String serverUrl, String token, String projectId, String catName) throws IOException {
+        YApiCat apiCat = getCatNameMap(serverUrl, token).get(catName);
+        if (apiCat != null) {
+            MetricsService.current(project).hit(MetricNames.CACHE_YAPI_CATEGORY);
+            return apiCat.get_id().toString();
+        }
+        MetricsService.current(project).miss(MetricNames.CACHE_YAPI_CATEGORY);
+        return addCategory(serverUrl, token, projectId, catName).get_id().toString();
+    }
+
+    /**
+     * 一次性创建本次执行需要的全部缺失分类
+     *
+     * @param serverUrl YApi服务地址
+     * @param token     项目token
+     * @param projectId 项目id
+     * @param catNames  分类名称
+     * @throws IOException
+     */
+    public void prepareCategories(String serverUrl, String token, String projectId, Collection<String> catNames) throws IOException {
+        Map<String, YApiCat> catNameMap = getCatNameMap(serverUrl, token);
+        for (String catName : new LinkedHashSet<>(catNames)) {
+            if (!catNameMap.containsKey(catName)) {
+                addCategory(serverUrl, token, projectId, catName);
+            }
+        }
+    }
+
+    public void invalidate(String serverUrl, String token) {
+        catEntryMap.remove(buildKey(serverUrl, token));
+    }
+
+    private Map<String, YApiCat> getCatNameMap(String serverUrl, String token) throws IOException {
+        String key = buildKey(serverUrl, token);
+        CatEntry catEntry = catEntryMap.get(key);
+        if (catEntry != null && !catEntry.isExpired()) {
+            return catEntry.catNameMap;
+        }
+        synchronized (this) {
+            catEntry = catEntryMap.get(key);
+            if (catEntry != null && !catEntry.isExpired()) {
+                return catEntry.catNameMap;
+            }
+            List<YApiCat> yApiCats = YApiSdk.listCategories(project, serverUrl, token);
+            catEntry = new CatEntry();
+            for (YApiCat cat : yApiCats) {
+                catEntry.catNameMap.put(cat.getName(), cat);
+            }
+            catEntryMap.put(key, catEntry);
+            return catEntry.catNameMap;
+        }
+    }
+
+    private YApiCat addCategory(String serverUrl, String token, String projectId, String catName) throws IOException {
+        String pendingKey = buildKey(serverUrl, token) + "#" + catName;
+        CompletableFuture<YApiCat> future = new CompletableFuture<>();
+        CompletableFuture<YApiCat> pending = pendingCatMap.putIfAbsent(pendingKey, future);
+        if (pending != null) {
+            return waitFor(pending);
+        }
+        try {
+            Map<String, YApiCat> catNameMap = getCatNameMap(serverUrl, token);
+            YApiCat apiCat = catNameMap.get(catName);
+            if (apiCat == null) {
+                apiCat = YApiSdk.addCategory(project, serverUrl, token, projectId, catName).getData();
+                catNameMap.put(catName, apiCat);
+            }
+            future.complete(apiCat);
+            return apiCat;
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingCatMap.remove(pendingKey, future);
+        }
+    }
+
+    private YApiCat waitFor(CompletableFuture<YApiCat> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private String buildKey(String serverUrl, String token) {
+        return serverUrl + "#" + token;
+    }
+
+    private static class CatEntry {
+
+        private final Map<String, YApiCat> catNameMap = new ConcurrentHashMap<>();
+        private final long loadTime = System.currentTimeMillis();
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - loadTime > TTL_MILLIS;
+        }
+    }
+}
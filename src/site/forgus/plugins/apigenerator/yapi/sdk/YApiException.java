@@ -0,0 +1,20 @@
+package site.forgus.plugins.apigenerator.yapi.sdk;
+
+import java.io.IOException;
+
+/**
+ * YApi返回的业务错误(errcode非0)，如token无效，重试无法恢复
+ */
+public class YApiException extends IOException {
+
+    private final Integer errcode;
+
+    public YApiException(String message, Integer errcode) {
+        super(message);
+        this.errcode = errcode;
+    }
+
+    public Integer getErrcode() {
+        return errcode;
+    }
+}
@@ -0,0 +1,91 @@
+package site.forgus.plugins.apigenerator.yapi.sdk;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import site.forgus.plugins.apigenerator.yapi.model.YApiInterfacePage;
+import site.forgus.plugins.apigenerator.yapi.model.YApiInterfaceSummary;
+import site.forgus.plugins.apigenerator.yapi.model.YApiResponse;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * YApi接口列表缓存，按YApi项目分页拉取一次全部接口，以"方法 路径"为键，用于与本地接口比对
+ */
+public class YApiInterfaceIndex {
+
+    private static final long TTL_MILLIS = 5 * 60 * 1000L;
+    private static final int PAGE_SIZE = 500;
+
+    private final Project project;
+    private final Map<String, IndexEntry> indexEntryMap = new ConcurrentHashMap<>();
+
+    public YApiInterfaceIndex(Project project) {
+        this.project = project;
+    }
+
+    public static YApiInterfaceIndex getInstance(Project project) {
+        return ServiceManager.getService(project, YApiInterfaceIndex.class);
+    }
+
+    /**
+     * 获取项目的全部接口，缓存过期后重新拉取
+     *
+     * @param serverUrl YApi服务地址
+     * @param token     项目token
+     * @param projectId 项目id
+     * @return 以"方法 路径"为键的接口，不可修改
+     * @throws IOException
+     */
+    public synchronized Map<String, YApiInterfaceSummary> getInterfaces(String serverUrl, String token, String projectId) throws IOException {
+        String key = buildKey(serverUrl, token);
+        IndexEntry indexEntry = indexEntryMap.get(key);
+        if (indexEntry != null && !indexEntry.isExpired()) {
+            return indexEntry.interfaceMap;
+        }
+        Map<String, YApiInterfaceSummary> interfaceMap = new LinkedHashMap<>();
+        for (int page = 1; ; page++) {
+            YApiResponse<YApiInterfacePage> yApiResponse = YApiSdk.checkResponse(YApiSdk.listInterfaces(project, serverUrl, token, projectId, page, PAGE_SIZE), "List interfaces");
+            YApiInterfacePage interfacePage = yApiResponse.getData();
+            for (YApiInterfaceSummary summary : interfacePage.getList()) {
+                interfaceMap.put(summary.getName(), summary);
+            }
+            //老版本YApi不返回总页数，取到不满一页为止
+            boolean lastPage = interfacePage.getTotal() == null ? interfacePage.getList().size() < PAGE_SIZE : page >= interfacePage.getTotal();
+            if (lastPage || interfacePage.getList().isEmpty()) {
+                break;
+            }
+        }
+        indexEntry = new IndexEntry(Collections.unmodifiableMap(interfaceMap));
+        indexEntryMap.put(key, indexEntry);
+        return indexEntry.interfaceMap;
+    }
+
+    /**
+     * 接口有新增、删除后使缓存失效
+     */
+    public void invalidate(String serverUrl, String token) {
+        indexEntryMap.remove(buildKey(serverUrl, token));
+    }
+
+    private String buildKey(String serverUrl, String token) {
+        return serverUrl + "#" + token;
+    }
+
+    private static class IndexEntry {
+
+        private final Map<String, YApiInterfaceSummary> interfaceMap;
+        private final long loadTime = System.currentTimeMillis();
+
+        private IndexEntry(Map<String, YApiInterfaceSummary> interfaceMap) {
+            this.interfaceMap = interfaceMap;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - loadTime > TTL_MILLIS;
+        }
+    }
+}
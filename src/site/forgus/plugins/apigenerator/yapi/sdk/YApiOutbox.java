@@ -0,0 +1,390 @@
+package site.forgus.plugins.apigenerator.yapi.sdk;
+
+import com.google.gson.JsonParseException;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpResponseException;
+import site.forgus.plugins.apigenerator.metrics.MetricNames;
+import site.forgus.plugins.apigenerator.metrics.MetricsService;
+import site.forgus.plugins.apigenerator.normal.ApiFingerprintStore;
+import site.forgus.plugins.apigenerator.util.NotificationUtil;
+import site.forgus.plugins.apigenerator.yapi.model.YApiImportCat;
+import site.forgus.plugins.apigenerator.yapi.model.YApiOutboxEntry;
+import site.forgus.plugins.apigenerator.yapi.model.YApiResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * YApi上传发件箱，每个待上传接口先落盘再发送，发送成功后删除；
+ * 网络异常的接口按指数退避在后台重试，IDE重启后继续发送，YApi返回业务错误的接口直接放弃。
+ * YApi保存接口按路径与方法覆盖，重复发送是幂等的
+ */
+public class YApiOutbox implements Disposable {
+
+    private static final Logger LOG = Logger.getInstance(YApiOutbox.class);
+
+    private static final long BASE_DELAY_MILLIS = 5_000L;
+    private static final long MAX_DELAY_MILLIS = 30 * 60_000L;
+    private static final String UNSUPPORTED_IMPORT_MESSAGE = "不存在的导入方式";
+
+    private final Project project;
+    private final Path dir;
+    private final Map<String, YApiOutboxEntry> entries = new ConcurrentHashMap<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Set<String> importRejectedServers = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+    private ScheduledFuture<?> scheduledFlush;
+    private long scheduledAt;
+
+    public YApiOutbox(Project project) {
+        this.project = project;
+        this.dir = Paths.get(PathManager.getSystemPath(), "api-generator", "outbox", project.getLocationHash());
+    }
+
+    public static YApiOutbox getInstance(Project project) {
+        return ServiceManager.getService(project, YApiOutbox.class);
+    }
+
+    /**
+     * 写入发件箱，同一接口未发送的旧内容被替换
+     *
+     * @param entry 待上传接口
+     * @throws IOException 落盘失败
+     */
+    public void put(YApiOutboxEntry entry) throws IOException {
+        ensureLoaded();
+        write(entry);
+        entries.put(entry.getKey(), entry);
+    }
+
+    /**
+     * 查找可直接续传的接口：配置与依赖源文件均未变化，无需重新解析
+     *
+     * @param key         接口标识
+     * @param settingHash 当前配置摘要
+     * @return 待上传接口，不可续传时为null
+     */
+    public YApiOutboxEntry findResumable(String key, String settingHash) {
+        ensureLoaded();
+        YApiOutboxEntry entry = entries.get(key);
+        if (entry == null || !settingHash.equals(entry.getSettingHash())) {
+            return null;
+        }
+        return ApiFingerprintStore.isDependenciesUnchanged(entry.getDependencies()) ? entry : null;
+    }
+
+    public int size() {
+        ensureLoaded();
+        return entries.size();
+    }
+
+    /**
+     * 发送接口，成功后移出发件箱并更新指纹；网络异常时保留并安排重试，YApi返回的业务错误不重试
+     *
+     * @param entry 待上传接口
+     * @return 错误信息，成功时返回null
+     */
+    public String send(YApiOutboxEntry entry) {
+        if (!inFlight.add(entry.getKey())) {
+            return null;
+        }
+        try {
+            YApiResponse yApiResponse;
+            try {
+                YApiCategoryCache categoryCache = YApiCategoryCache.getInstance(project);
+                entry.getYApiInterface().setCatid(categoryCache.getCatId(entry.getServerUrl(), entry.getToken(), entry.getProjectId(), entry.getCatName()));
+                yApiResponse = YApiSdk.saveInterface(project, entry.getServerUrl(), entry.getYApiInterface());
+                if (yApiResponse == null) {
+                    throw new IOException("No response from " + entry.getServerUrl());
+                }
+            } catch (YApiException e) {
+                remove(entry);
+                return e.getMessage();
+            } catch (IOException | RuntimeException e) {
+                String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+                retryLater(entry, message);
+                return message + " (queued for retry)";
+            }
+            remove(entry);
+            if (!Integer.valueOf(0).equals(yApiResponse.getErrcode())) {
+                return yApiResponse.getErrmsg();
+            }
+            ApiFingerprintStore.getInstance(project).update(entry.getKey(), entry.getSettingHash(), entry.getPayloadHash(), entry.getDependencies(), null, entry.getName());
+            return null;
+        } finally {
+            inFlight.remove(entry.getKey());
+        }
+    }
+
+    /**
+     * 通过YApi数据导入接口一次发送一批接口，服务器没有或不支持导入接口时逐个保存，
+     * 这类服务器之后直接逐个保存；网络异常时整批保留并安排重试，YApi返回其他错误时整批失败
+     *
+     * @param batch     同一目标项目的待上传接口
+     * @param mergeMode 导入合并模式
+     * @return 错误信息，全部成功时返回null
+     */
+    public String sendBatch(List<YApiOutboxEntry> batch, String mergeMode) {
+        List<YApiOutboxEntry> claimed = new ArrayList<>();
+        for (YApiOutboxEntry entry : batch) {
+            if (inFlight.add(entry.getKey())) {
+                claimed.add(entry);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return null;
+        }
+        YApiOutboxEntry first = claimed.get(0);
+        try {
+            if (!importRejectedServers.contains(first.getServerUrl())) {
+                YApiResponse yApiResponse;
+                String rejectReason = null;
+                try {
+                    yApiResponse = YApiSdk.importData(project, first.getServerUrl(), first.getToken(), mergeMode, groupByCat(claimed));
+                    if (yApiResponse == null) {
+                        throw new IOException("No response from " + first.getServerUrl());
+                    }
+                    if (isImportUnsupported(yApiResponse)) {
+                        rejectReason = yApiResponse.getErrmsg();
+                    }
+                } catch (HttpResponseException e) {
+                    if (e.getStatusCode() != HttpStatus.SC_NOT_FOUND) {
+                        return retryLater(claimed, e);
+                    }
+                    yApiResponse = null;
+                    rejectReason = e.getMessage();
+                } catch (IOException e) {
+                    return retryLater(claimed, e);
+                } catch (JsonParseException e) {
+                    //响应不是YApi的JSON，服务端没有导入接口
+                    yApiResponse = null;
+                    rejectReason = "not a YApi response";
+                }
+                if (rejectReason == null) {
+                    if (Integer.valueOf(0).equals(yApiResponse.getErrcode())) {
+                        ApiFingerprintStore fingerprintStore = ApiFingerprintStore.getInstance(project);
+                        for (YApiOutboxEntry entry : claimed) {
+                            remove(entry);
+                            fingerprintStore.update(entry.getKey(), entry.getSettingHash(), entry.getPayloadHash(), entry.getDependencies(), null, entry.getName());
+                        }
+                        return null;
+                    }
+                    //YApi返回的业务错误，重试无法恢复
+                    for (YApiOutboxEntry entry : claimed) {
+                        remove(entry);
+                    }
+                    return yApiResponse.getErrmsg();
+                }
+                LOG.info("YApi import rejected by " + first.getServerUrl() + ": " + rejectReason);
+                importRejectedServers.add(first.getServerUrl());
+            }
+        } finally {
+            for (YApiOutboxEntry entry : claimed) {
+                inFlight.remove(entry.getKey());
+            }
+        }
+        MetricsService.current(project).increment(MetricNames.YAPI_IMPORT_FALLBACK);
+        List<String> errors = new ArrayList<>();
+        for (YApiOutboxEntry entry : claimed) {
+            String error = send(entry);
+            if (error != null) {
+                errors.add(entry.getName() + ": " + error);
+            }
+        }
+        return errors.isEmpty() ? null : String.join("\n", errors);
+    }
+
+    /**
+     * 服务器不认识json导入方式，返回"不存在的导入方式"
+     */
+    private static boolean isImportUnsupported(YApiResponse yApiResponse) {
+        return !Integer.valueOf(0).equals(yApiResponse.getErrcode()) && yApiResponse.getErrmsg() != null
+                && yApiResponse.getErrmsg().contains(UNSUPPORTED_IMPORT_MESSAGE);
+    }
+
+    private String retryLater(List<YApiOutboxEntry> batch, IOException e) {
+        String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        for (YApiOutboxEntry entry : batch) {
+            retryLater(entry, message);
+        }
+        return message + " (queued for retry)";
+    }
+
+    private static List<YApiImportCat> groupByCat(List<YApiOutboxEntry> batch) {
+        Map<String, YApiImportCat> cats = new LinkedHashMap<>();
+        for (YApiOutboxEntry entry : batch) {
+            cats.computeIfAbsent(entry.getCatName(), YApiImportCat::new).getList().add(entry.getYApiInterface());
+        }
+        return new ArrayList<>(cats.values());
+    }
+
+    /**
+     * 安排后台发送，已有更早的计划时忽略
+     *
+     * @param delayMillis 延迟毫秒数
+     */
+    public synchronized void scheduleFlush(long delayMillis) {
+        long at = System.currentTimeMillis() + delayMillis;
+        if (scheduledFlush != null && !scheduledFlush.isDone() && scheduledAt <= at) {
+            return;
+        }
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+        }
+        scheduledAt = at;
+        scheduledFlush = AppExecutorUtil.getAppScheduledExecutorService().schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 发送到期的接口，之后按最早的重试时间安排下一次
+     */
+    private void flush() {
+        if (project.isDisposed()) {
+            return;
+        }
+        ensureLoaded();
+        long now = System.currentTimeMillis();
+        int sent = 0;
+        List<String> errors = new ArrayList<>();
+        for (YApiOutboxEntry entry : new ArrayList<>(entries.values())) {
+            if (project.isDisposed()) {
+                return;
+            }
+            if (entry.getNextAttemptMillis() > now) {
+                continue;
+            }
+            String error = send(entry);
+            if (error == null) {
+                sent++;
+            } else if (!entries.containsKey(entry.getKey())) {
+                errors.add(entry.getName() + ": " + error);
+            }
+        }
+        if (sent > 0) {
+            NotificationUtil.infoNotify(sent + " queued api uploaded to YApi.", project);
+        }
+        if (!errors.isEmpty()) {
+            NotificationUtil.errorNotify("Upload queued api failed, cause:" + String.join("\n", errors), project);
+        }
+        long next = Long.MAX_VALUE;
+        for (YApiOutboxEntry entry : entries.values()) {
+            next = Math.min(next, entry.getNextAttemptMillis());
+        }
+        if (next != Long.MAX_VALUE) {
+            scheduleFlush(Math.max(0, next - System.currentTimeMillis()));
+        }
+    }
+
+    private void retryLater(YApiOutboxEntry entry, String error) {
+        if (entries.get(entry.getKey()) != entry) {
+            //已被更新的内容替换
+            return;
+        }
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(error);
+        entry.setNextAttemptMillis(System.currentTimeMillis() + backoff(entry.getAttempts()));
+        MetricsService.current(project).increment(MetricNames.OUTBOX_RETRY);
+        try {
+            write(entry);
+        } catch (IOException e) {
+            LOG.warn("Failed to update outbox entry " + entry.getKey(), e);
+        }
+    }
+
+    /**
+     * 指数退避，取[delay/2, delay]之间的随机值避免同时重试
+     */
+    private static long backoff(int attempts) {
+        long delay = Math.min(MAX_DELAY_MILLIS, BASE_DELAY_MILLIS << Math.min(attempts - 1, 20));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void remove(YApiOutboxEntry entry) {
+        if (!entries.remove(entry.getKey(), entry)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(fileOf(entry.getKey()));
+        } catch (IOException e) {
+            LOG.warn("Failed to delete outbox entry " + entry.getKey(), e);
+        }
+    }
+
+    private void write(YApiOutboxEntry entry) throws IOException {
+        Files.createDirectories(dir);
+        Path target = fileOf(entry.getKey());
+        Path temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, YApiJson.toJson(entry).getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path fileOf(String key) {
+        return dir.resolve(DigestUtils.md5Hex(key) + ".json");
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            if (Files.isDirectory(dir)) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.json")) {
+                    for (Path file : files) {
+                        load(file);
+                    }
+                } catch (IOException e) {
+                    LOG.warn("Failed to read outbox " + dir, e);
+                }
+            }
+            loaded = true;
+        }
+    }
+
+    private void load(Path file) {
+        try {
+            YApiOutboxEntry entry = YApiJson.fromJson(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), YApiOutboxEntry.class);
+            if (entry != null && entry.getKey() != null && entry.getYApiInterface() != null) {
+                entries.putIfAbsent(entry.getKey(), entry);
+                return;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Discard unreadable outbox entry " + file, e);
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            //下次加载时再删除
+        }
+    }
+
+    @Override
+    public synchronized void dispose() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package site.forgus.plugins.apigenerator.yapi.sdk;
+
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.startup.StartupActivity;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 项目打开后继续发送上次未完成的上传
+ */
+public class YApiOutboxStartupActivity implements StartupActivity, DumbAware {
+
+    private static final long DELAY_MILLIS = 10_000L;
+
+    @Override
+    public void runActivity(@NotNull Project project) {
+        YApiOutbox.getInstance(project).scheduleFlush(DELAY_MILLIS);
+    }
+}
@@ -1,15 +1,20 @@
 package site.forgus.plugins.apigenerator.yapi.sdk;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.ThrowableComputable;
+import site.forgus.plugins.apigenerator.metrics.MetricNames;
+import site.forgus.plugins.apigenerator.metrics.MetricsRegistry;
+import site.forgus.plugins.apigenerator.metrics.MetricsService;
 import site.forgus.plugins.apigenerator.util.HttpUtil;
 import site.forgus.plugins.apigenerator.yapi.model.*;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
-import java.text.DateFormat;
-import java.util.Date;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,15 +25,9 @@ public class YApiSdk {
     private static final String LIST_CATEGORY_URI = "/api/interface/getCatMenu";
     private static final String ADD_CATEGORY_URI = "/api/interface/add_cat";
     private static final String SAVE_INTERFACE_URI = "/api/interface/save";
-
-    private static Gson gson;
-
-    static {
-        GsonBuilder builder = new GsonBuilder();
-        builder.registerTypeAdapter(Date.class, new DateSerializer()).setDateFormat(DateFormat.LONG);
-        builder.registerTypeAdapter(Date.class, new DateDeserializer()).setDateFormat(DateFormat.LONG);
-        gson = builder.create();
-    }
+    private static final String IMPORT_DATA_URI = "/api/open/import_data";
+    private static final String LIST_INTERFACE_URI = "/api/interface/list";
+    private static final String DELETE_INTERFACE_URI = "/api/interface/del";
 
     /**
      * 获取项目信息
@@ -37,14 +36,14 @@ public class YApiSdk {
      * @return
      * @throws IOException
      */
-    public static YApiProject getProjectInfo(String serverUrl, String token) throws IOException {
+    public static YApiProject getProjectInfo(Project project, String serverUrl, String token) throws IOException {
         Map<String, String> params = new HashMap<>();
         params.put("token", token);
-        String responseStr = HttpUtil.doGet(serverUrl + PROJECT_INFO_URI, params);
+        String responseStr = doGet(project, serverUrl + PROJECT_INFO_URI, params);
         Type type = new TypeToken<YApiResponse<YApiProject>>() {
         }.getType();
-        YApiResponse<YApiProject> yApiResponse = gson.fromJson(responseStr, type);
-        return yApiResponse.getData();
+        YApiResponse<YApiProject> yApiResponse = YApiJson.fromJson(responseStr, type);
+        return checkResponse(yApiResponse, "Get project info").getData();
     }
 
     /**
@@ -54,14 +53,14 @@ public class YApiSdk {
      * @return
      * @throws IOException
      */
-    public static List<YApiCat> listCategories(String serverUrl, String token) throws IOException {
+    public static List<YApiCat> listCategories(Project project, String serverUrl, String token) throws IOException {
         Map<String, String> params = new HashMap<>();
         params.put("token", token);
-        String responseStr = HttpUtil.doGet(serverUrl + LIST_CATEGORY_URI, params);
+        String responseStr = doGet(project, serverUrl + LIST_CATEGORY_URI, params);
         Type type = new TypeToken<YApiResponse<List<YApiCat>>>() {
         }.getType();
-        YApiResponse<List<YApiCat>> yApiResponse = gson.fromJson(responseStr, type);
-        return yApiResponse.getData();
+        YApiResponse<List<YApiCat>> yApiResponse = YApiJson.fromJson(responseStr, type);
+        return checkResponse(yApiResponse, "List categories").getData();
     }
 
     /**
@@ -73,8 +72,8 @@ public class YApiSdk {
      * @return
      * @throws IOException
      */
-    public static YApiResponse<YApiCat> addCategory(String serverUrl, String token, String projectId, String name) throws IOException {
-        return addCategory(serverUrl, token, projectId, name, "");
+    public static YApiResponse<YApiCat> addCategory(Project project, String serverUrl, String token, String projectId, String name) throws IOException {
+        return addCategory(project, serverUrl, token, projectId, name, "");
     }
 
     /**
@@ -84,21 +83,127 @@ public class YApiSdk {
      * @return
      * @throws IOException
      */
-    public static YApiResponse saveInterface(String serverUrl, YApiInterface yApiInterface) throws IOException {
-        String string = HttpUtil.doPost(serverUrl + SAVE_INTERFACE_URI, gson.toJson(yApiInterface));
-        return gson.fromJson(string, YApiResponse.class);
+    public static YApiResponse saveInterface(Project project, String serverUrl, YApiInterface yApiInterface) throws IOException {
+        String string = doPost(project, serverUrl + SAVE_INTERFACE_URI, YApiJson.toJson(yApiInterface));
+        return YApiJson.fromJson(string, YApiResponse.class);
+    }
+
+    /**
+     * 通过数据导入接口批量保存接口(json格式)，按分类名称匹配或创建分类，请求体边序列化边发送
+     *
+     * @param token
+     * @param mergeMode 合并模式，见{@link site.forgus.plugins.apigenerator.yapi.enums.YApiMergeModeEnum}
+     * @param cats      按分类分组的接口
+     * @return
+     * @throws IOException
+     */
+    public static YApiResponse importData(Project project, String serverUrl, String token, String mergeMode, List<YApiImportCat> cats) throws IOException {
+        String url = serverUrl + IMPORT_DATA_URI;
+        String string = call(project, url, () -> HttpUtil.doPost(project, url, out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write("{\"type\":\"json\",\"merge\":");
+            YApiJson.toJson(mergeMode, writer);
+            writer.write(",\"token\":");
+            YApiJson.toJson(token, writer);
+            writer.write(",\"json\":");
+            YApiJson.toJsonString(cats, writer);
+            writer.write("}");
+            writer.flush();
+        }));
+        return YApiJson.fromJson(string, YApiResponse.class);
+    }
+
+    /**
+     * 分页获取项目的接口列表
+     *
+     * @param token
+     * @param projectId
+     * @param page      页码，从1开始
+     * @param limit     每页数量
+     * @return
+     * @throws IOException
+     */
+    public static YApiResponse<YApiInterfacePage> listInterfaces(Project project, String serverUrl, String token, String projectId, int page, int limit) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        params.put("token", token);
+        params.put("project_id", projectId);
+        params.put("page", String.valueOf(page));
+        params.put("limit", String.valueOf(limit));
+        String responseStr = doGet(project, serverUrl + LIST_INTERFACE_URI, params);
+        Type type = new TypeToken<YApiResponse<YApiInterfacePage>>() {
+        }.getType();
+        return YApiJson.fromJson(responseStr, type);
+    }
+
+    /**
+     * 删除接口
+     *
+     * @param token
+     * @param id    接口id
+     * @return
+     * @throws IOException
+     */
+    public static YApiResponse deleteInterface(Project project, String serverUrl, String token, Integer id) throws IOException {
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", id);
+        params.put("token", token);
+        String string = doPost(project, serverUrl + DELETE_INTERFACE_URI, YApiJson.toJson(params));
+        return YApiJson.fromJson(string, YApiResponse.class);
     }
 
-    private static YApiResponse<YApiCat> addCategory(String serverUrl, String token, String projectId, String name, String desc) throws IOException {
+    private static YApiResponse<YApiCat> addCategory(Project project, String serverUrl, String token, String projectId, String name, String desc) throws IOException {
         Map<String, String> params = new HashMap<>();
         params.put("desc", desc);
         params.put("name", name);
         params.put("project_id", projectId);
         params.put("token", token);
-        String string = HttpUtil.doPost(serverUrl + ADD_CATEGORY_URI, gson.toJson(params));
+        String string = doPost(project, serverUrl + ADD_CATEGORY_URI, YApiJson.toJson(params));
         Type type = new TypeToken<YApiResponse<YApiCat>>() {
         }.getType();
-        return gson.fromJson(string, type);
+        YApiResponse<YApiCat> yApiResponse = YApiJson.fromJson(string, type);
+        return checkResponse(yApiResponse, "Add category " + name);
     }
 
+    /**
+     * 响应体为空时解析结果为null，按IO异常处理；YApi返回错误码时抛出{@link YApiException}
+     */
+    static <T> YApiResponse<T> checkResponse(YApiResponse<T> yApiResponse, String action) throws IOException {
+        if (yApiResponse == null) {
+            throw new IOException(action + " failed, no response from YApi.");
+        }
+        if (yApiResponse.getErrcode() == null || yApiResponse.getErrcode() != 0 || yApiResponse.getData() == null) {
+            throw new YApiException(action + " failed, cause:" + yApiResponse.getErrmsg(), yApiResponse.getErrcode());
+        }
+        return yApiResponse;
+    }
+
+    private static String doGet(Project project, String url, Map<String, String> params) throws IOException {
+        return call(project, url, () -> HttpUtil.doGet(project, url, params));
+    }
+
+    private static String doPost(Project project, String url, String body) throws IOException {
+        return call(project, url, () -> HttpUtil.doPost(project, url, body));
+    }
+
+    /**
+     * 按接口路径记录调用耗时与失败次数，无响应内容也计为失败
+     */
+    private static String call(Project project, String url, ThrowableComputable<String, IOException> request) throws IOException {
+        String uri = url.substring(url.indexOf("/api/") + 1);
+        String name = MetricNames.YAPI_PREFIX + uri.replace('/', '.');
+        MetricsRegistry metrics = MetricsService.current(project);
+        long start = System.nanoTime();
+        try {
+            String response = request.compute();
+            if (response == null || response.isEmpty()) {
+                metrics.increment(name + MetricNames.ERROR_SUFFIX);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            metrics.increment(name + MetricNames.ERROR_SUFFIX);
+            throw e;
+        } finally {
+            metrics.record(name, start);
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package site.forgus.plugins.apigenerator.yapi.sdk;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import site.forgus.plugins.apigenerator.metrics.MetricsRegistry;
+import site.forgus.plugins.apigenerator.metrics.MetricsService;
+import site.forgus.plugins.apigenerator.yapi.model.YApiUploadResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * 接口上传队列，由固定并发数的线程发送请求，在途请求达到上限时阻塞提交方，支持多线程提交
+ */
+public class YApiUploadQueue {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final List<Future<YApiUploadResult>> futures = Collections.synchronizedList(new ArrayList<>());
+    private final MetricsRegistry metrics;
+
+    /**
+     * @param metrics 提交方任务的指标，上传线程上的请求耗时记录到该指标
+     */
+    public YApiUploadQueue(int concurrency, MetricsRegistry metrics) {
+        this.metrics = metrics;
+        int threads = Math.max(1, concurrency);
+        this.executor = AppExecutorUtil.createBoundedApplicationPoolExecutor("YApi Upload", threads);
+        this.permits = new Semaphore(threads * 2);
+    }
+
+    /**
+     * 提交上传任务
+     *
+     * @param indicator 后台任务进度，等待队列空位时响应取消
+     * @param name      接口名称
+     * @param upload    上传逻辑，返回错误信息，成功时返回null
+     */
+    public void submit(ProgressIndicator indicator, String name, Callable<String> upload) {
+        acquire(indicator);
+        futures.add(executor.submit(MetricsService.bind(metrics, () -> {
+            try {
+                String errorMessage = upload.call();
+                return errorMessage == null ? YApiUploadResult.success(name) : YApiUploadResult.fail(name, errorMessage);
+            } catch (Exception e) {
+                return YApiUploadResult.fail(name, e.getMessage());
+            } finally {
+                permits.release();
+            }
+        })));
+    }
+
+    /**
+     * 等待全部上传完成
+     *
+     * @param indicator 后台任务进度
+     * @return 按提交顺序排列的上传结果
+     */
+    public List<YApiUploadResult> awaitResults(ProgressIndicator indicator) {
+        List<YApiUploadResult> results = new ArrayList<>();
+        try {
+            for (Future<YApiUploadResult> future : listFutures()) {
+                results.add(await(indicator, future));
+            }
+        } catch (ProcessCanceledException e) {
+            cancel();
+            throw e;
+        }
+        return results;
+    }
+
+    public void cancel() {
+        for (Future<YApiUploadResult> future : listFutures()) {
+            future.cancel(true);
+        }
+    }
+
+    private List<Future<YApiUploadResult>> listFutures() {
+        synchronized (futures) {
+            return new ArrayList<>(futures);
+        }
+    }
+
+    private YApiUploadResult await(ProgressIndicator indicator, Future<YApiUploadResult> future) {
+        while (true) {
+            indicator.checkCanceled();
+            try {
+                return future.get(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                //继续等待
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessCanceledException();
+            } catch (ExecutionException e) {
+                return YApiUploadResult.fail("", e.getCause().getMessage());
+            }
+        }
+    }
+
+    private void acquire(ProgressIndicator indicator) {
+        try {
+            while (!permits.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (indicator.isCanceled()) {
+                    cancel();
+                    indicator.checkCanceled();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new ProcessCanceledException();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package site.forgus.plugins.apigenerator.util;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.psi.PsiClass;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import site.forgus.plugins.apigenerator.ApiGenerator;
+import site.forgus.plugins.apigenerator.config.ApiGeneratorConfig;
+import site.forgus.plugins.apigenerator.normal.FieldInfo;
+
+import java.util.List;
+
+/**
+ * 解析字段只依赖stub，非预期的语法树加载会使测试失败
+ */
+public class AstLoadingGuardTest extends LightCodeInsightFixtureTestCase {
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        System.setProperty(AstLoadingGuard.ASSERT_PROPERTY, "true");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            System.clearProperty(AstLoadingGuard.ASSERT_PROPERTY);
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testResolveFieldsWithoutLoadingAst() {
+        addClass("demo/RoleEnum.java", "package demo;\n\npublic enum RoleEnum {\n    ADMIN, GUEST\n}\n", "demo.RoleEnum");
+        PsiClass userClass = addClass("demo/UserDto.java", "package demo;\n\nimport java.util.List;\n\npublic class UserDto {\n"
+                + "    /**\n     * 用户名\n     */\n    private String name;\n"
+                + "    /**\n     * 角色，见{@link RoleEnum}\n     */\n    private RoleEnum role;\n"
+                + "    private List<UserDto> friends;\n}\n", "demo.UserDto");
+        ApiGenerator generator = new ApiGenerator(getProject(), ServiceManager.getService(getProject(), ApiGeneratorConfig.class), false);
+        AstLoadingGuard guard = AstLoadingGuard.install(getProject());
+        List<FieldInfo> fieldInfos;
+        try {
+            fieldInfos = generator.listFieldInfos(userClass);
+            for (FieldInfo fieldInfo : fieldInfos) {
+                fieldInfo.getChildren();
+            }
+        } finally {
+            assertEquals("unexpected AST loads", 0, AstLoadingGuard.uninstall(guard));
+        }
+        assertEquals(3, fieldInfos.size());
+        assertEquals("用户名", fieldInfos.get(0).getDesc());
+        assertTrue(fieldInfos.get(1).getDesc().startsWith("角色，见RoleEnum,"));
+    }
+
+    public void testCountUnexpectedLoadsPerInstall() {
+        PsiClass first = addClass("demo/First.java", "package demo;\n\npublic class First {\n}\n", "demo.First");
+        PsiClass second = addClass("demo/Second.java", "package demo;\n\npublic class Second {\n}\n", "demo.Second");
+        AstLoadingGuard outer = AstLoadingGuard.install(getProject());
+        AstLoadingGuard inner = AstLoadingGuard.install(getProject());
+        loadAst(first);
+        assertEquals(1, AstLoadingGuard.uninstall(inner));
+        loadAst(second);
+        assertEquals(2, AstLoadingGuard.uninstall(outer));
+        //最后一个安装卸载后过滤器已移除，加载语法树不再报错
+        PsiClass third = addClass("demo/Third.java", "package demo;\n\npublic class Third {\n}\n", "demo.Third");
+        assertNotNull(third.getContainingFile().getNode());
+    }
+
+    private PsiClass addClass(String path, String text, String qualifiedName) {
+        myFixture.addFileToProject(path, text);
+        return myFixture.findClass(qualifiedName);
+    }
+
+    /**
+     * 过滤器计数后通过日志报错，测试环境中日志报错抛出AssertionError
+     */
+    private void loadAst(PsiClass psiClass) {
+        try {
+            psiClass.getContainingFile().getNode();
+        } catch (AssertionError expected) {
+            //已计数
+        }
+    }
+}